@@ -0,0 +1,2040 @@
+package com.github.jcommon.spi.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基准测试服务提供者, 服务名称为类名首字母小写: p000 ~ p499
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public final class BenchmarkProviders {
+    /**
+     * 所有服务提供者, 按照服务名称排序
+     */
+    public static final List<Class<? extends BenchmarkService>> PROVIDERS = Collections.unmodifiableList(Arrays.asList(
+            P000.class,
+            P001.class,
+            P002.class,
+            P003.class,
+            P004.class,
+            P005.class,
+            P006.class,
+            P007.class,
+            P008.class,
+            P009.class,
+            P010.class,
+            P011.class,
+            P012.class,
+            P013.class,
+            P014.class,
+            P015.class,
+            P016.class,
+            P017.class,
+            P018.class,
+            P019.class,
+            P020.class,
+            P021.class,
+            P022.class,
+            P023.class,
+            P024.class,
+            P025.class,
+            P026.class,
+            P027.class,
+            P028.class,
+            P029.class,
+            P030.class,
+            P031.class,
+            P032.class,
+            P033.class,
+            P034.class,
+            P035.class,
+            P036.class,
+            P037.class,
+            P038.class,
+            P039.class,
+            P040.class,
+            P041.class,
+            P042.class,
+            P043.class,
+            P044.class,
+            P045.class,
+            P046.class,
+            P047.class,
+            P048.class,
+            P049.class,
+            P050.class,
+            P051.class,
+            P052.class,
+            P053.class,
+            P054.class,
+            P055.class,
+            P056.class,
+            P057.class,
+            P058.class,
+            P059.class,
+            P060.class,
+            P061.class,
+            P062.class,
+            P063.class,
+            P064.class,
+            P065.class,
+            P066.class,
+            P067.class,
+            P068.class,
+            P069.class,
+            P070.class,
+            P071.class,
+            P072.class,
+            P073.class,
+            P074.class,
+            P075.class,
+            P076.class,
+            P077.class,
+            P078.class,
+            P079.class,
+            P080.class,
+            P081.class,
+            P082.class,
+            P083.class,
+            P084.class,
+            P085.class,
+            P086.class,
+            P087.class,
+            P088.class,
+            P089.class,
+            P090.class,
+            P091.class,
+            P092.class,
+            P093.class,
+            P094.class,
+            P095.class,
+            P096.class,
+            P097.class,
+            P098.class,
+            P099.class,
+            P100.class,
+            P101.class,
+            P102.class,
+            P103.class,
+            P104.class,
+            P105.class,
+            P106.class,
+            P107.class,
+            P108.class,
+            P109.class,
+            P110.class,
+            P111.class,
+            P112.class,
+            P113.class,
+            P114.class,
+            P115.class,
+            P116.class,
+            P117.class,
+            P118.class,
+            P119.class,
+            P120.class,
+            P121.class,
+            P122.class,
+            P123.class,
+            P124.class,
+            P125.class,
+            P126.class,
+            P127.class,
+            P128.class,
+            P129.class,
+            P130.class,
+            P131.class,
+            P132.class,
+            P133.class,
+            P134.class,
+            P135.class,
+            P136.class,
+            P137.class,
+            P138.class,
+            P139.class,
+            P140.class,
+            P141.class,
+            P142.class,
+            P143.class,
+            P144.class,
+            P145.class,
+            P146.class,
+            P147.class,
+            P148.class,
+            P149.class,
+            P150.class,
+            P151.class,
+            P152.class,
+            P153.class,
+            P154.class,
+            P155.class,
+            P156.class,
+            P157.class,
+            P158.class,
+            P159.class,
+            P160.class,
+            P161.class,
+            P162.class,
+            P163.class,
+            P164.class,
+            P165.class,
+            P166.class,
+            P167.class,
+            P168.class,
+            P169.class,
+            P170.class,
+            P171.class,
+            P172.class,
+            P173.class,
+            P174.class,
+            P175.class,
+            P176.class,
+            P177.class,
+            P178.class,
+            P179.class,
+            P180.class,
+            P181.class,
+            P182.class,
+            P183.class,
+            P184.class,
+            P185.class,
+            P186.class,
+            P187.class,
+            P188.class,
+            P189.class,
+            P190.class,
+            P191.class,
+            P192.class,
+            P193.class,
+            P194.class,
+            P195.class,
+            P196.class,
+            P197.class,
+            P198.class,
+            P199.class,
+            P200.class,
+            P201.class,
+            P202.class,
+            P203.class,
+            P204.class,
+            P205.class,
+            P206.class,
+            P207.class,
+            P208.class,
+            P209.class,
+            P210.class,
+            P211.class,
+            P212.class,
+            P213.class,
+            P214.class,
+            P215.class,
+            P216.class,
+            P217.class,
+            P218.class,
+            P219.class,
+            P220.class,
+            P221.class,
+            P222.class,
+            P223.class,
+            P224.class,
+            P225.class,
+            P226.class,
+            P227.class,
+            P228.class,
+            P229.class,
+            P230.class,
+            P231.class,
+            P232.class,
+            P233.class,
+            P234.class,
+            P235.class,
+            P236.class,
+            P237.class,
+            P238.class,
+            P239.class,
+            P240.class,
+            P241.class,
+            P242.class,
+            P243.class,
+            P244.class,
+            P245.class,
+            P246.class,
+            P247.class,
+            P248.class,
+            P249.class,
+            P250.class,
+            P251.class,
+            P252.class,
+            P253.class,
+            P254.class,
+            P255.class,
+            P256.class,
+            P257.class,
+            P258.class,
+            P259.class,
+            P260.class,
+            P261.class,
+            P262.class,
+            P263.class,
+            P264.class,
+            P265.class,
+            P266.class,
+            P267.class,
+            P268.class,
+            P269.class,
+            P270.class,
+            P271.class,
+            P272.class,
+            P273.class,
+            P274.class,
+            P275.class,
+            P276.class,
+            P277.class,
+            P278.class,
+            P279.class,
+            P280.class,
+            P281.class,
+            P282.class,
+            P283.class,
+            P284.class,
+            P285.class,
+            P286.class,
+            P287.class,
+            P288.class,
+            P289.class,
+            P290.class,
+            P291.class,
+            P292.class,
+            P293.class,
+            P294.class,
+            P295.class,
+            P296.class,
+            P297.class,
+            P298.class,
+            P299.class,
+            P300.class,
+            P301.class,
+            P302.class,
+            P303.class,
+            P304.class,
+            P305.class,
+            P306.class,
+            P307.class,
+            P308.class,
+            P309.class,
+            P310.class,
+            P311.class,
+            P312.class,
+            P313.class,
+            P314.class,
+            P315.class,
+            P316.class,
+            P317.class,
+            P318.class,
+            P319.class,
+            P320.class,
+            P321.class,
+            P322.class,
+            P323.class,
+            P324.class,
+            P325.class,
+            P326.class,
+            P327.class,
+            P328.class,
+            P329.class,
+            P330.class,
+            P331.class,
+            P332.class,
+            P333.class,
+            P334.class,
+            P335.class,
+            P336.class,
+            P337.class,
+            P338.class,
+            P339.class,
+            P340.class,
+            P341.class,
+            P342.class,
+            P343.class,
+            P344.class,
+            P345.class,
+            P346.class,
+            P347.class,
+            P348.class,
+            P349.class,
+            P350.class,
+            P351.class,
+            P352.class,
+            P353.class,
+            P354.class,
+            P355.class,
+            P356.class,
+            P357.class,
+            P358.class,
+            P359.class,
+            P360.class,
+            P361.class,
+            P362.class,
+            P363.class,
+            P364.class,
+            P365.class,
+            P366.class,
+            P367.class,
+            P368.class,
+            P369.class,
+            P370.class,
+            P371.class,
+            P372.class,
+            P373.class,
+            P374.class,
+            P375.class,
+            P376.class,
+            P377.class,
+            P378.class,
+            P379.class,
+            P380.class,
+            P381.class,
+            P382.class,
+            P383.class,
+            P384.class,
+            P385.class,
+            P386.class,
+            P387.class,
+            P388.class,
+            P389.class,
+            P390.class,
+            P391.class,
+            P392.class,
+            P393.class,
+            P394.class,
+            P395.class,
+            P396.class,
+            P397.class,
+            P398.class,
+            P399.class,
+            P400.class,
+            P401.class,
+            P402.class,
+            P403.class,
+            P404.class,
+            P405.class,
+            P406.class,
+            P407.class,
+            P408.class,
+            P409.class,
+            P410.class,
+            P411.class,
+            P412.class,
+            P413.class,
+            P414.class,
+            P415.class,
+            P416.class,
+            P417.class,
+            P418.class,
+            P419.class,
+            P420.class,
+            P421.class,
+            P422.class,
+            P423.class,
+            P424.class,
+            P425.class,
+            P426.class,
+            P427.class,
+            P428.class,
+            P429.class,
+            P430.class,
+            P431.class,
+            P432.class,
+            P433.class,
+            P434.class,
+            P435.class,
+            P436.class,
+            P437.class,
+            P438.class,
+            P439.class,
+            P440.class,
+            P441.class,
+            P442.class,
+            P443.class,
+            P444.class,
+            P445.class,
+            P446.class,
+            P447.class,
+            P448.class,
+            P449.class,
+            P450.class,
+            P451.class,
+            P452.class,
+            P453.class,
+            P454.class,
+            P455.class,
+            P456.class,
+            P457.class,
+            P458.class,
+            P459.class,
+            P460.class,
+            P461.class,
+            P462.class,
+            P463.class,
+            P464.class,
+            P465.class,
+            P466.class,
+            P467.class,
+            P468.class,
+            P469.class,
+            P470.class,
+            P471.class,
+            P472.class,
+            P473.class,
+            P474.class,
+            P475.class,
+            P476.class,
+            P477.class,
+            P478.class,
+            P479.class,
+            P480.class,
+            P481.class,
+            P482.class,
+            P483.class,
+            P484.class,
+            P485.class,
+            P486.class,
+            P487.class,
+            P488.class,
+            P489.class,
+            P490.class,
+            P491.class,
+            P492.class,
+            P493.class,
+            P494.class,
+            P495.class,
+            P496.class,
+            P497.class,
+            P498.class,
+            P499.class
+    ));
+
+    private BenchmarkProviders() {
+    }
+
+    /**
+     * 基准测试SPI类型
+     */
+    public interface BenchmarkService {
+        String name();
+    }
+
+    /**
+     * 用于多态匹配的中间类型
+     */
+    public abstract static class AbstractBenchmarkService implements BenchmarkService {
+        @Override
+        public String name() {
+            return getClass().getSimpleName();
+        }
+    }
+
+    public static class P000 extends AbstractBenchmarkService {
+    }
+
+    public static class P001 extends AbstractBenchmarkService {
+    }
+
+    public static class P002 extends AbstractBenchmarkService {
+    }
+
+    public static class P003 extends AbstractBenchmarkService {
+    }
+
+    public static class P004 extends AbstractBenchmarkService {
+    }
+
+    public static class P005 extends AbstractBenchmarkService {
+    }
+
+    public static class P006 extends AbstractBenchmarkService {
+    }
+
+    public static class P007 extends AbstractBenchmarkService {
+    }
+
+    public static class P008 extends AbstractBenchmarkService {
+    }
+
+    public static class P009 extends AbstractBenchmarkService {
+    }
+
+    public static class P010 extends AbstractBenchmarkService {
+    }
+
+    public static class P011 extends AbstractBenchmarkService {
+    }
+
+    public static class P012 extends AbstractBenchmarkService {
+    }
+
+    public static class P013 extends AbstractBenchmarkService {
+    }
+
+    public static class P014 extends AbstractBenchmarkService {
+    }
+
+    public static class P015 extends AbstractBenchmarkService {
+    }
+
+    public static class P016 extends AbstractBenchmarkService {
+    }
+
+    public static class P017 extends AbstractBenchmarkService {
+    }
+
+    public static class P018 extends AbstractBenchmarkService {
+    }
+
+    public static class P019 extends AbstractBenchmarkService {
+    }
+
+    public static class P020 extends AbstractBenchmarkService {
+    }
+
+    public static class P021 extends AbstractBenchmarkService {
+    }
+
+    public static class P022 extends AbstractBenchmarkService {
+    }
+
+    public static class P023 extends AbstractBenchmarkService {
+    }
+
+    public static class P024 extends AbstractBenchmarkService {
+    }
+
+    public static class P025 extends AbstractBenchmarkService {
+    }
+
+    public static class P026 extends AbstractBenchmarkService {
+    }
+
+    public static class P027 extends AbstractBenchmarkService {
+    }
+
+    public static class P028 extends AbstractBenchmarkService {
+    }
+
+    public static class P029 extends AbstractBenchmarkService {
+    }
+
+    public static class P030 extends AbstractBenchmarkService {
+    }
+
+    public static class P031 extends AbstractBenchmarkService {
+    }
+
+    public static class P032 extends AbstractBenchmarkService {
+    }
+
+    public static class P033 extends AbstractBenchmarkService {
+    }
+
+    public static class P034 extends AbstractBenchmarkService {
+    }
+
+    public static class P035 extends AbstractBenchmarkService {
+    }
+
+    public static class P036 extends AbstractBenchmarkService {
+    }
+
+    public static class P037 extends AbstractBenchmarkService {
+    }
+
+    public static class P038 extends AbstractBenchmarkService {
+    }
+
+    public static class P039 extends AbstractBenchmarkService {
+    }
+
+    public static class P040 extends AbstractBenchmarkService {
+    }
+
+    public static class P041 extends AbstractBenchmarkService {
+    }
+
+    public static class P042 extends AbstractBenchmarkService {
+    }
+
+    public static class P043 extends AbstractBenchmarkService {
+    }
+
+    public static class P044 extends AbstractBenchmarkService {
+    }
+
+    public static class P045 extends AbstractBenchmarkService {
+    }
+
+    public static class P046 extends AbstractBenchmarkService {
+    }
+
+    public static class P047 extends AbstractBenchmarkService {
+    }
+
+    public static class P048 extends AbstractBenchmarkService {
+    }
+
+    public static class P049 extends AbstractBenchmarkService {
+    }
+
+    public static class P050 extends AbstractBenchmarkService {
+    }
+
+    public static class P051 extends AbstractBenchmarkService {
+    }
+
+    public static class P052 extends AbstractBenchmarkService {
+    }
+
+    public static class P053 extends AbstractBenchmarkService {
+    }
+
+    public static class P054 extends AbstractBenchmarkService {
+    }
+
+    public static class P055 extends AbstractBenchmarkService {
+    }
+
+    public static class P056 extends AbstractBenchmarkService {
+    }
+
+    public static class P057 extends AbstractBenchmarkService {
+    }
+
+    public static class P058 extends AbstractBenchmarkService {
+    }
+
+    public static class P059 extends AbstractBenchmarkService {
+    }
+
+    public static class P060 extends AbstractBenchmarkService {
+    }
+
+    public static class P061 extends AbstractBenchmarkService {
+    }
+
+    public static class P062 extends AbstractBenchmarkService {
+    }
+
+    public static class P063 extends AbstractBenchmarkService {
+    }
+
+    public static class P064 extends AbstractBenchmarkService {
+    }
+
+    public static class P065 extends AbstractBenchmarkService {
+    }
+
+    public static class P066 extends AbstractBenchmarkService {
+    }
+
+    public static class P067 extends AbstractBenchmarkService {
+    }
+
+    public static class P068 extends AbstractBenchmarkService {
+    }
+
+    public static class P069 extends AbstractBenchmarkService {
+    }
+
+    public static class P070 extends AbstractBenchmarkService {
+    }
+
+    public static class P071 extends AbstractBenchmarkService {
+    }
+
+    public static class P072 extends AbstractBenchmarkService {
+    }
+
+    public static class P073 extends AbstractBenchmarkService {
+    }
+
+    public static class P074 extends AbstractBenchmarkService {
+    }
+
+    public static class P075 extends AbstractBenchmarkService {
+    }
+
+    public static class P076 extends AbstractBenchmarkService {
+    }
+
+    public static class P077 extends AbstractBenchmarkService {
+    }
+
+    public static class P078 extends AbstractBenchmarkService {
+    }
+
+    public static class P079 extends AbstractBenchmarkService {
+    }
+
+    public static class P080 extends AbstractBenchmarkService {
+    }
+
+    public static class P081 extends AbstractBenchmarkService {
+    }
+
+    public static class P082 extends AbstractBenchmarkService {
+    }
+
+    public static class P083 extends AbstractBenchmarkService {
+    }
+
+    public static class P084 extends AbstractBenchmarkService {
+    }
+
+    public static class P085 extends AbstractBenchmarkService {
+    }
+
+    public static class P086 extends AbstractBenchmarkService {
+    }
+
+    public static class P087 extends AbstractBenchmarkService {
+    }
+
+    public static class P088 extends AbstractBenchmarkService {
+    }
+
+    public static class P089 extends AbstractBenchmarkService {
+    }
+
+    public static class P090 extends AbstractBenchmarkService {
+    }
+
+    public static class P091 extends AbstractBenchmarkService {
+    }
+
+    public static class P092 extends AbstractBenchmarkService {
+    }
+
+    public static class P093 extends AbstractBenchmarkService {
+    }
+
+    public static class P094 extends AbstractBenchmarkService {
+    }
+
+    public static class P095 extends AbstractBenchmarkService {
+    }
+
+    public static class P096 extends AbstractBenchmarkService {
+    }
+
+    public static class P097 extends AbstractBenchmarkService {
+    }
+
+    public static class P098 extends AbstractBenchmarkService {
+    }
+
+    public static class P099 extends AbstractBenchmarkService {
+    }
+
+    public static class P100 extends AbstractBenchmarkService {
+    }
+
+    public static class P101 extends AbstractBenchmarkService {
+    }
+
+    public static class P102 extends AbstractBenchmarkService {
+    }
+
+    public static class P103 extends AbstractBenchmarkService {
+    }
+
+    public static class P104 extends AbstractBenchmarkService {
+    }
+
+    public static class P105 extends AbstractBenchmarkService {
+    }
+
+    public static class P106 extends AbstractBenchmarkService {
+    }
+
+    public static class P107 extends AbstractBenchmarkService {
+    }
+
+    public static class P108 extends AbstractBenchmarkService {
+    }
+
+    public static class P109 extends AbstractBenchmarkService {
+    }
+
+    public static class P110 extends AbstractBenchmarkService {
+    }
+
+    public static class P111 extends AbstractBenchmarkService {
+    }
+
+    public static class P112 extends AbstractBenchmarkService {
+    }
+
+    public static class P113 extends AbstractBenchmarkService {
+    }
+
+    public static class P114 extends AbstractBenchmarkService {
+    }
+
+    public static class P115 extends AbstractBenchmarkService {
+    }
+
+    public static class P116 extends AbstractBenchmarkService {
+    }
+
+    public static class P117 extends AbstractBenchmarkService {
+    }
+
+    public static class P118 extends AbstractBenchmarkService {
+    }
+
+    public static class P119 extends AbstractBenchmarkService {
+    }
+
+    public static class P120 extends AbstractBenchmarkService {
+    }
+
+    public static class P121 extends AbstractBenchmarkService {
+    }
+
+    public static class P122 extends AbstractBenchmarkService {
+    }
+
+    public static class P123 extends AbstractBenchmarkService {
+    }
+
+    public static class P124 extends AbstractBenchmarkService {
+    }
+
+    public static class P125 extends AbstractBenchmarkService {
+    }
+
+    public static class P126 extends AbstractBenchmarkService {
+    }
+
+    public static class P127 extends AbstractBenchmarkService {
+    }
+
+    public static class P128 extends AbstractBenchmarkService {
+    }
+
+    public static class P129 extends AbstractBenchmarkService {
+    }
+
+    public static class P130 extends AbstractBenchmarkService {
+    }
+
+    public static class P131 extends AbstractBenchmarkService {
+    }
+
+    public static class P132 extends AbstractBenchmarkService {
+    }
+
+    public static class P133 extends AbstractBenchmarkService {
+    }
+
+    public static class P134 extends AbstractBenchmarkService {
+    }
+
+    public static class P135 extends AbstractBenchmarkService {
+    }
+
+    public static class P136 extends AbstractBenchmarkService {
+    }
+
+    public static class P137 extends AbstractBenchmarkService {
+    }
+
+    public static class P138 extends AbstractBenchmarkService {
+    }
+
+    public static class P139 extends AbstractBenchmarkService {
+    }
+
+    public static class P140 extends AbstractBenchmarkService {
+    }
+
+    public static class P141 extends AbstractBenchmarkService {
+    }
+
+    public static class P142 extends AbstractBenchmarkService {
+    }
+
+    public static class P143 extends AbstractBenchmarkService {
+    }
+
+    public static class P144 extends AbstractBenchmarkService {
+    }
+
+    public static class P145 extends AbstractBenchmarkService {
+    }
+
+    public static class P146 extends AbstractBenchmarkService {
+    }
+
+    public static class P147 extends AbstractBenchmarkService {
+    }
+
+    public static class P148 extends AbstractBenchmarkService {
+    }
+
+    public static class P149 extends AbstractBenchmarkService {
+    }
+
+    public static class P150 extends AbstractBenchmarkService {
+    }
+
+    public static class P151 extends AbstractBenchmarkService {
+    }
+
+    public static class P152 extends AbstractBenchmarkService {
+    }
+
+    public static class P153 extends AbstractBenchmarkService {
+    }
+
+    public static class P154 extends AbstractBenchmarkService {
+    }
+
+    public static class P155 extends AbstractBenchmarkService {
+    }
+
+    public static class P156 extends AbstractBenchmarkService {
+    }
+
+    public static class P157 extends AbstractBenchmarkService {
+    }
+
+    public static class P158 extends AbstractBenchmarkService {
+    }
+
+    public static class P159 extends AbstractBenchmarkService {
+    }
+
+    public static class P160 extends AbstractBenchmarkService {
+    }
+
+    public static class P161 extends AbstractBenchmarkService {
+    }
+
+    public static class P162 extends AbstractBenchmarkService {
+    }
+
+    public static class P163 extends AbstractBenchmarkService {
+    }
+
+    public static class P164 extends AbstractBenchmarkService {
+    }
+
+    public static class P165 extends AbstractBenchmarkService {
+    }
+
+    public static class P166 extends AbstractBenchmarkService {
+    }
+
+    public static class P167 extends AbstractBenchmarkService {
+    }
+
+    public static class P168 extends AbstractBenchmarkService {
+    }
+
+    public static class P169 extends AbstractBenchmarkService {
+    }
+
+    public static class P170 extends AbstractBenchmarkService {
+    }
+
+    public static class P171 extends AbstractBenchmarkService {
+    }
+
+    public static class P172 extends AbstractBenchmarkService {
+    }
+
+    public static class P173 extends AbstractBenchmarkService {
+    }
+
+    public static class P174 extends AbstractBenchmarkService {
+    }
+
+    public static class P175 extends AbstractBenchmarkService {
+    }
+
+    public static class P176 extends AbstractBenchmarkService {
+    }
+
+    public static class P177 extends AbstractBenchmarkService {
+    }
+
+    public static class P178 extends AbstractBenchmarkService {
+    }
+
+    public static class P179 extends AbstractBenchmarkService {
+    }
+
+    public static class P180 extends AbstractBenchmarkService {
+    }
+
+    public static class P181 extends AbstractBenchmarkService {
+    }
+
+    public static class P182 extends AbstractBenchmarkService {
+    }
+
+    public static class P183 extends AbstractBenchmarkService {
+    }
+
+    public static class P184 extends AbstractBenchmarkService {
+    }
+
+    public static class P185 extends AbstractBenchmarkService {
+    }
+
+    public static class P186 extends AbstractBenchmarkService {
+    }
+
+    public static class P187 extends AbstractBenchmarkService {
+    }
+
+    public static class P188 extends AbstractBenchmarkService {
+    }
+
+    public static class P189 extends AbstractBenchmarkService {
+    }
+
+    public static class P190 extends AbstractBenchmarkService {
+    }
+
+    public static class P191 extends AbstractBenchmarkService {
+    }
+
+    public static class P192 extends AbstractBenchmarkService {
+    }
+
+    public static class P193 extends AbstractBenchmarkService {
+    }
+
+    public static class P194 extends AbstractBenchmarkService {
+    }
+
+    public static class P195 extends AbstractBenchmarkService {
+    }
+
+    public static class P196 extends AbstractBenchmarkService {
+    }
+
+    public static class P197 extends AbstractBenchmarkService {
+    }
+
+    public static class P198 extends AbstractBenchmarkService {
+    }
+
+    public static class P199 extends AbstractBenchmarkService {
+    }
+
+    public static class P200 extends AbstractBenchmarkService {
+    }
+
+    public static class P201 extends AbstractBenchmarkService {
+    }
+
+    public static class P202 extends AbstractBenchmarkService {
+    }
+
+    public static class P203 extends AbstractBenchmarkService {
+    }
+
+    public static class P204 extends AbstractBenchmarkService {
+    }
+
+    public static class P205 extends AbstractBenchmarkService {
+    }
+
+    public static class P206 extends AbstractBenchmarkService {
+    }
+
+    public static class P207 extends AbstractBenchmarkService {
+    }
+
+    public static class P208 extends AbstractBenchmarkService {
+    }
+
+    public static class P209 extends AbstractBenchmarkService {
+    }
+
+    public static class P210 extends AbstractBenchmarkService {
+    }
+
+    public static class P211 extends AbstractBenchmarkService {
+    }
+
+    public static class P212 extends AbstractBenchmarkService {
+    }
+
+    public static class P213 extends AbstractBenchmarkService {
+    }
+
+    public static class P214 extends AbstractBenchmarkService {
+    }
+
+    public static class P215 extends AbstractBenchmarkService {
+    }
+
+    public static class P216 extends AbstractBenchmarkService {
+    }
+
+    public static class P217 extends AbstractBenchmarkService {
+    }
+
+    public static class P218 extends AbstractBenchmarkService {
+    }
+
+    public static class P219 extends AbstractBenchmarkService {
+    }
+
+    public static class P220 extends AbstractBenchmarkService {
+    }
+
+    public static class P221 extends AbstractBenchmarkService {
+    }
+
+    public static class P222 extends AbstractBenchmarkService {
+    }
+
+    public static class P223 extends AbstractBenchmarkService {
+    }
+
+    public static class P224 extends AbstractBenchmarkService {
+    }
+
+    public static class P225 extends AbstractBenchmarkService {
+    }
+
+    public static class P226 extends AbstractBenchmarkService {
+    }
+
+    public static class P227 extends AbstractBenchmarkService {
+    }
+
+    public static class P228 extends AbstractBenchmarkService {
+    }
+
+    public static class P229 extends AbstractBenchmarkService {
+    }
+
+    public static class P230 extends AbstractBenchmarkService {
+    }
+
+    public static class P231 extends AbstractBenchmarkService {
+    }
+
+    public static class P232 extends AbstractBenchmarkService {
+    }
+
+    public static class P233 extends AbstractBenchmarkService {
+    }
+
+    public static class P234 extends AbstractBenchmarkService {
+    }
+
+    public static class P235 extends AbstractBenchmarkService {
+    }
+
+    public static class P236 extends AbstractBenchmarkService {
+    }
+
+    public static class P237 extends AbstractBenchmarkService {
+    }
+
+    public static class P238 extends AbstractBenchmarkService {
+    }
+
+    public static class P239 extends AbstractBenchmarkService {
+    }
+
+    public static class P240 extends AbstractBenchmarkService {
+    }
+
+    public static class P241 extends AbstractBenchmarkService {
+    }
+
+    public static class P242 extends AbstractBenchmarkService {
+    }
+
+    public static class P243 extends AbstractBenchmarkService {
+    }
+
+    public static class P244 extends AbstractBenchmarkService {
+    }
+
+    public static class P245 extends AbstractBenchmarkService {
+    }
+
+    public static class P246 extends AbstractBenchmarkService {
+    }
+
+    public static class P247 extends AbstractBenchmarkService {
+    }
+
+    public static class P248 extends AbstractBenchmarkService {
+    }
+
+    public static class P249 extends AbstractBenchmarkService {
+    }
+
+    public static class P250 extends AbstractBenchmarkService {
+    }
+
+    public static class P251 extends AbstractBenchmarkService {
+    }
+
+    public static class P252 extends AbstractBenchmarkService {
+    }
+
+    public static class P253 extends AbstractBenchmarkService {
+    }
+
+    public static class P254 extends AbstractBenchmarkService {
+    }
+
+    public static class P255 extends AbstractBenchmarkService {
+    }
+
+    public static class P256 extends AbstractBenchmarkService {
+    }
+
+    public static class P257 extends AbstractBenchmarkService {
+    }
+
+    public static class P258 extends AbstractBenchmarkService {
+    }
+
+    public static class P259 extends AbstractBenchmarkService {
+    }
+
+    public static class P260 extends AbstractBenchmarkService {
+    }
+
+    public static class P261 extends AbstractBenchmarkService {
+    }
+
+    public static class P262 extends AbstractBenchmarkService {
+    }
+
+    public static class P263 extends AbstractBenchmarkService {
+    }
+
+    public static class P264 extends AbstractBenchmarkService {
+    }
+
+    public static class P265 extends AbstractBenchmarkService {
+    }
+
+    public static class P266 extends AbstractBenchmarkService {
+    }
+
+    public static class P267 extends AbstractBenchmarkService {
+    }
+
+    public static class P268 extends AbstractBenchmarkService {
+    }
+
+    public static class P269 extends AbstractBenchmarkService {
+    }
+
+    public static class P270 extends AbstractBenchmarkService {
+    }
+
+    public static class P271 extends AbstractBenchmarkService {
+    }
+
+    public static class P272 extends AbstractBenchmarkService {
+    }
+
+    public static class P273 extends AbstractBenchmarkService {
+    }
+
+    public static class P274 extends AbstractBenchmarkService {
+    }
+
+    public static class P275 extends AbstractBenchmarkService {
+    }
+
+    public static class P276 extends AbstractBenchmarkService {
+    }
+
+    public static class P277 extends AbstractBenchmarkService {
+    }
+
+    public static class P278 extends AbstractBenchmarkService {
+    }
+
+    public static class P279 extends AbstractBenchmarkService {
+    }
+
+    public static class P280 extends AbstractBenchmarkService {
+    }
+
+    public static class P281 extends AbstractBenchmarkService {
+    }
+
+    public static class P282 extends AbstractBenchmarkService {
+    }
+
+    public static class P283 extends AbstractBenchmarkService {
+    }
+
+    public static class P284 extends AbstractBenchmarkService {
+    }
+
+    public static class P285 extends AbstractBenchmarkService {
+    }
+
+    public static class P286 extends AbstractBenchmarkService {
+    }
+
+    public static class P287 extends AbstractBenchmarkService {
+    }
+
+    public static class P288 extends AbstractBenchmarkService {
+    }
+
+    public static class P289 extends AbstractBenchmarkService {
+    }
+
+    public static class P290 extends AbstractBenchmarkService {
+    }
+
+    public static class P291 extends AbstractBenchmarkService {
+    }
+
+    public static class P292 extends AbstractBenchmarkService {
+    }
+
+    public static class P293 extends AbstractBenchmarkService {
+    }
+
+    public static class P294 extends AbstractBenchmarkService {
+    }
+
+    public static class P295 extends AbstractBenchmarkService {
+    }
+
+    public static class P296 extends AbstractBenchmarkService {
+    }
+
+    public static class P297 extends AbstractBenchmarkService {
+    }
+
+    public static class P298 extends AbstractBenchmarkService {
+    }
+
+    public static class P299 extends AbstractBenchmarkService {
+    }
+
+    public static class P300 extends AbstractBenchmarkService {
+    }
+
+    public static class P301 extends AbstractBenchmarkService {
+    }
+
+    public static class P302 extends AbstractBenchmarkService {
+    }
+
+    public static class P303 extends AbstractBenchmarkService {
+    }
+
+    public static class P304 extends AbstractBenchmarkService {
+    }
+
+    public static class P305 extends AbstractBenchmarkService {
+    }
+
+    public static class P306 extends AbstractBenchmarkService {
+    }
+
+    public static class P307 extends AbstractBenchmarkService {
+    }
+
+    public static class P308 extends AbstractBenchmarkService {
+    }
+
+    public static class P309 extends AbstractBenchmarkService {
+    }
+
+    public static class P310 extends AbstractBenchmarkService {
+    }
+
+    public static class P311 extends AbstractBenchmarkService {
+    }
+
+    public static class P312 extends AbstractBenchmarkService {
+    }
+
+    public static class P313 extends AbstractBenchmarkService {
+    }
+
+    public static class P314 extends AbstractBenchmarkService {
+    }
+
+    public static class P315 extends AbstractBenchmarkService {
+    }
+
+    public static class P316 extends AbstractBenchmarkService {
+    }
+
+    public static class P317 extends AbstractBenchmarkService {
+    }
+
+    public static class P318 extends AbstractBenchmarkService {
+    }
+
+    public static class P319 extends AbstractBenchmarkService {
+    }
+
+    public static class P320 extends AbstractBenchmarkService {
+    }
+
+    public static class P321 extends AbstractBenchmarkService {
+    }
+
+    public static class P322 extends AbstractBenchmarkService {
+    }
+
+    public static class P323 extends AbstractBenchmarkService {
+    }
+
+    public static class P324 extends AbstractBenchmarkService {
+    }
+
+    public static class P325 extends AbstractBenchmarkService {
+    }
+
+    public static class P326 extends AbstractBenchmarkService {
+    }
+
+    public static class P327 extends AbstractBenchmarkService {
+    }
+
+    public static class P328 extends AbstractBenchmarkService {
+    }
+
+    public static class P329 extends AbstractBenchmarkService {
+    }
+
+    public static class P330 extends AbstractBenchmarkService {
+    }
+
+    public static class P331 extends AbstractBenchmarkService {
+    }
+
+    public static class P332 extends AbstractBenchmarkService {
+    }
+
+    public static class P333 extends AbstractBenchmarkService {
+    }
+
+    public static class P334 extends AbstractBenchmarkService {
+    }
+
+    public static class P335 extends AbstractBenchmarkService {
+    }
+
+    public static class P336 extends AbstractBenchmarkService {
+    }
+
+    public static class P337 extends AbstractBenchmarkService {
+    }
+
+    public static class P338 extends AbstractBenchmarkService {
+    }
+
+    public static class P339 extends AbstractBenchmarkService {
+    }
+
+    public static class P340 extends AbstractBenchmarkService {
+    }
+
+    public static class P341 extends AbstractBenchmarkService {
+    }
+
+    public static class P342 extends AbstractBenchmarkService {
+    }
+
+    public static class P343 extends AbstractBenchmarkService {
+    }
+
+    public static class P344 extends AbstractBenchmarkService {
+    }
+
+    public static class P345 extends AbstractBenchmarkService {
+    }
+
+    public static class P346 extends AbstractBenchmarkService {
+    }
+
+    public static class P347 extends AbstractBenchmarkService {
+    }
+
+    public static class P348 extends AbstractBenchmarkService {
+    }
+
+    public static class P349 extends AbstractBenchmarkService {
+    }
+
+    public static class P350 extends AbstractBenchmarkService {
+    }
+
+    public static class P351 extends AbstractBenchmarkService {
+    }
+
+    public static class P352 extends AbstractBenchmarkService {
+    }
+
+    public static class P353 extends AbstractBenchmarkService {
+    }
+
+    public static class P354 extends AbstractBenchmarkService {
+    }
+
+    public static class P355 extends AbstractBenchmarkService {
+    }
+
+    public static class P356 extends AbstractBenchmarkService {
+    }
+
+    public static class P357 extends AbstractBenchmarkService {
+    }
+
+    public static class P358 extends AbstractBenchmarkService {
+    }
+
+    public static class P359 extends AbstractBenchmarkService {
+    }
+
+    public static class P360 extends AbstractBenchmarkService {
+    }
+
+    public static class P361 extends AbstractBenchmarkService {
+    }
+
+    public static class P362 extends AbstractBenchmarkService {
+    }
+
+    public static class P363 extends AbstractBenchmarkService {
+    }
+
+    public static class P364 extends AbstractBenchmarkService {
+    }
+
+    public static class P365 extends AbstractBenchmarkService {
+    }
+
+    public static class P366 extends AbstractBenchmarkService {
+    }
+
+    public static class P367 extends AbstractBenchmarkService {
+    }
+
+    public static class P368 extends AbstractBenchmarkService {
+    }
+
+    public static class P369 extends AbstractBenchmarkService {
+    }
+
+    public static class P370 extends AbstractBenchmarkService {
+    }
+
+    public static class P371 extends AbstractBenchmarkService {
+    }
+
+    public static class P372 extends AbstractBenchmarkService {
+    }
+
+    public static class P373 extends AbstractBenchmarkService {
+    }
+
+    public static class P374 extends AbstractBenchmarkService {
+    }
+
+    public static class P375 extends AbstractBenchmarkService {
+    }
+
+    public static class P376 extends AbstractBenchmarkService {
+    }
+
+    public static class P377 extends AbstractBenchmarkService {
+    }
+
+    public static class P378 extends AbstractBenchmarkService {
+    }
+
+    public static class P379 extends AbstractBenchmarkService {
+    }
+
+    public static class P380 extends AbstractBenchmarkService {
+    }
+
+    public static class P381 extends AbstractBenchmarkService {
+    }
+
+    public static class P382 extends AbstractBenchmarkService {
+    }
+
+    public static class P383 extends AbstractBenchmarkService {
+    }
+
+    public static class P384 extends AbstractBenchmarkService {
+    }
+
+    public static class P385 extends AbstractBenchmarkService {
+    }
+
+    public static class P386 extends AbstractBenchmarkService {
+    }
+
+    public static class P387 extends AbstractBenchmarkService {
+    }
+
+    public static class P388 extends AbstractBenchmarkService {
+    }
+
+    public static class P389 extends AbstractBenchmarkService {
+    }
+
+    public static class P390 extends AbstractBenchmarkService {
+    }
+
+    public static class P391 extends AbstractBenchmarkService {
+    }
+
+    public static class P392 extends AbstractBenchmarkService {
+    }
+
+    public static class P393 extends AbstractBenchmarkService {
+    }
+
+    public static class P394 extends AbstractBenchmarkService {
+    }
+
+    public static class P395 extends AbstractBenchmarkService {
+    }
+
+    public static class P396 extends AbstractBenchmarkService {
+    }
+
+    public static class P397 extends AbstractBenchmarkService {
+    }
+
+    public static class P398 extends AbstractBenchmarkService {
+    }
+
+    public static class P399 extends AbstractBenchmarkService {
+    }
+
+    public static class P400 extends AbstractBenchmarkService {
+    }
+
+    public static class P401 extends AbstractBenchmarkService {
+    }
+
+    public static class P402 extends AbstractBenchmarkService {
+    }
+
+    public static class P403 extends AbstractBenchmarkService {
+    }
+
+    public static class P404 extends AbstractBenchmarkService {
+    }
+
+    public static class P405 extends AbstractBenchmarkService {
+    }
+
+    public static class P406 extends AbstractBenchmarkService {
+    }
+
+    public static class P407 extends AbstractBenchmarkService {
+    }
+
+    public static class P408 extends AbstractBenchmarkService {
+    }
+
+    public static class P409 extends AbstractBenchmarkService {
+    }
+
+    public static class P410 extends AbstractBenchmarkService {
+    }
+
+    public static class P411 extends AbstractBenchmarkService {
+    }
+
+    public static class P412 extends AbstractBenchmarkService {
+    }
+
+    public static class P413 extends AbstractBenchmarkService {
+    }
+
+    public static class P414 extends AbstractBenchmarkService {
+    }
+
+    public static class P415 extends AbstractBenchmarkService {
+    }
+
+    public static class P416 extends AbstractBenchmarkService {
+    }
+
+    public static class P417 extends AbstractBenchmarkService {
+    }
+
+    public static class P418 extends AbstractBenchmarkService {
+    }
+
+    public static class P419 extends AbstractBenchmarkService {
+    }
+
+    public static class P420 extends AbstractBenchmarkService {
+    }
+
+    public static class P421 extends AbstractBenchmarkService {
+    }
+
+    public static class P422 extends AbstractBenchmarkService {
+    }
+
+    public static class P423 extends AbstractBenchmarkService {
+    }
+
+    public static class P424 extends AbstractBenchmarkService {
+    }
+
+    public static class P425 extends AbstractBenchmarkService {
+    }
+
+    public static class P426 extends AbstractBenchmarkService {
+    }
+
+    public static class P427 extends AbstractBenchmarkService {
+    }
+
+    public static class P428 extends AbstractBenchmarkService {
+    }
+
+    public static class P429 extends AbstractBenchmarkService {
+    }
+
+    public static class P430 extends AbstractBenchmarkService {
+    }
+
+    public static class P431 extends AbstractBenchmarkService {
+    }
+
+    public static class P432 extends AbstractBenchmarkService {
+    }
+
+    public static class P433 extends AbstractBenchmarkService {
+    }
+
+    public static class P434 extends AbstractBenchmarkService {
+    }
+
+    public static class P435 extends AbstractBenchmarkService {
+    }
+
+    public static class P436 extends AbstractBenchmarkService {
+    }
+
+    public static class P437 extends AbstractBenchmarkService {
+    }
+
+    public static class P438 extends AbstractBenchmarkService {
+    }
+
+    public static class P439 extends AbstractBenchmarkService {
+    }
+
+    public static class P440 extends AbstractBenchmarkService {
+    }
+
+    public static class P441 extends AbstractBenchmarkService {
+    }
+
+    public static class P442 extends AbstractBenchmarkService {
+    }
+
+    public static class P443 extends AbstractBenchmarkService {
+    }
+
+    public static class P444 extends AbstractBenchmarkService {
+    }
+
+    public static class P445 extends AbstractBenchmarkService {
+    }
+
+    public static class P446 extends AbstractBenchmarkService {
+    }
+
+    public static class P447 extends AbstractBenchmarkService {
+    }
+
+    public static class P448 extends AbstractBenchmarkService {
+    }
+
+    public static class P449 extends AbstractBenchmarkService {
+    }
+
+    public static class P450 extends AbstractBenchmarkService {
+    }
+
+    public static class P451 extends AbstractBenchmarkService {
+    }
+
+    public static class P452 extends AbstractBenchmarkService {
+    }
+
+    public static class P453 extends AbstractBenchmarkService {
+    }
+
+    public static class P454 extends AbstractBenchmarkService {
+    }
+
+    public static class P455 extends AbstractBenchmarkService {
+    }
+
+    public static class P456 extends AbstractBenchmarkService {
+    }
+
+    public static class P457 extends AbstractBenchmarkService {
+    }
+
+    public static class P458 extends AbstractBenchmarkService {
+    }
+
+    public static class P459 extends AbstractBenchmarkService {
+    }
+
+    public static class P460 extends AbstractBenchmarkService {
+    }
+
+    public static class P461 extends AbstractBenchmarkService {
+    }
+
+    public static class P462 extends AbstractBenchmarkService {
+    }
+
+    public static class P463 extends AbstractBenchmarkService {
+    }
+
+    public static class P464 extends AbstractBenchmarkService {
+    }
+
+    public static class P465 extends AbstractBenchmarkService {
+    }
+
+    public static class P466 extends AbstractBenchmarkService {
+    }
+
+    public static class P467 extends AbstractBenchmarkService {
+    }
+
+    public static class P468 extends AbstractBenchmarkService {
+    }
+
+    public static class P469 extends AbstractBenchmarkService {
+    }
+
+    public static class P470 extends AbstractBenchmarkService {
+    }
+
+    public static class P471 extends AbstractBenchmarkService {
+    }
+
+    public static class P472 extends AbstractBenchmarkService {
+    }
+
+    public static class P473 extends AbstractBenchmarkService {
+    }
+
+    public static class P474 extends AbstractBenchmarkService {
+    }
+
+    public static class P475 extends AbstractBenchmarkService {
+    }
+
+    public static class P476 extends AbstractBenchmarkService {
+    }
+
+    public static class P477 extends AbstractBenchmarkService {
+    }
+
+    public static class P478 extends AbstractBenchmarkService {
+    }
+
+    public static class P479 extends AbstractBenchmarkService {
+    }
+
+    public static class P480 extends AbstractBenchmarkService {
+    }
+
+    public static class P481 extends AbstractBenchmarkService {
+    }
+
+    public static class P482 extends AbstractBenchmarkService {
+    }
+
+    public static class P483 extends AbstractBenchmarkService {
+    }
+
+    public static class P484 extends AbstractBenchmarkService {
+    }
+
+    public static class P485 extends AbstractBenchmarkService {
+    }
+
+    public static class P486 extends AbstractBenchmarkService {
+    }
+
+    public static class P487 extends AbstractBenchmarkService {
+    }
+
+    public static class P488 extends AbstractBenchmarkService {
+    }
+
+    public static class P489 extends AbstractBenchmarkService {
+    }
+
+    public static class P490 extends AbstractBenchmarkService {
+    }
+
+    public static class P491 extends AbstractBenchmarkService {
+    }
+
+    public static class P492 extends AbstractBenchmarkService {
+    }
+
+    public static class P493 extends AbstractBenchmarkService {
+    }
+
+    public static class P494 extends AbstractBenchmarkService {
+    }
+
+    public static class P495 extends AbstractBenchmarkService {
+    }
+
+    public static class P496 extends AbstractBenchmarkService {
+    }
+
+    public static class P497 extends AbstractBenchmarkService {
+    }
+
+    public static class P498 extends AbstractBenchmarkService {
+    }
+
+    public static class P499 extends AbstractBenchmarkService {
+    }
+}
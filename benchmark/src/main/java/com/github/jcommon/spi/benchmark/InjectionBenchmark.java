@@ -0,0 +1,190 @@
+package com.github.jcommon.spi.benchmark;
+
+import com.github.jcommon.spi.Provider;
+import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.spi.ProviderNameExtractor;
+import com.github.jcommon.spi.ProviderScope;
+import com.github.jcommon.spi.benchmark.BenchmarkProviders.BenchmarkService;
+import com.github.jcommon.spi.benchmark.BenchmarkProviders.P000;
+import com.github.jcommon.spi.benchmark.BenchmarkProviders.P001;
+import com.github.jcommon.spi.internals.SpiProviderFactory;
+import com.github.jcommon.spi.support.ProviderManager;
+import com.github.jcommon.spi.support.ProviderRegistry;
+import com.github.jcommon.type.TypeResolver;
+import com.github.jcommon.type.TypeResolverUtil;
+import com.github.jcommon.util.AnnotationUtil;
+import com.github.jcommon.util.ReflectUtil;
+import com.github.jcommon.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务提供者创建基准测试, 对比ProviderInjector编译的创建过程与引入注入器之前的ReflectUtil反射创建过程
+ * 每次调用创建一个原型服务提供者: 无参构造方法创建实例, 注入@Resource字段与@Resource setter方法, 执行@PostConstruct
+ * 反射过程与引入注入器之前的ProviderManager相同: 每次创建都查找注入点与@PostConstruct、@PreDestroy方法, 通过ReflectUtil赋值与调用
+ * 原型不执行@PreDestroy, 注入器在第一次创建时解析并缓存@PreDestroy方法, 反射过程每次创建解析一次(原过程还会为每个实例注册关闭钩子, 此处不包含)
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InjectionBenchmark {
+    private ClassLoader previousClassLoader;
+    private ProviderRegistry registry;
+    private ProviderManager<InjectedService> providerManager;
+    /**
+     * 反射过程使用的依赖工厂, 与注入器最终委托的工厂相同
+     */
+    private ProviderFactory providerFactory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ClassLoader classLoader = new URLClassLoader(new URL[0], InjectionBenchmark.class.getClassLoader());
+        previousClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+
+        registry = ProviderRegistry.open(classLoader);
+        // 依赖注入使用的工厂, 已通过配置文件注册时忽略
+        registry.load(ProviderFactory.class).register(SpiProviderFactory.class);
+        registry.load(BenchmarkService.class)
+                .register(P000.class)
+                .register(P001.class);
+        providerManager = registry.load(InjectedService.class).register(InjectedProvider.class);
+        providerFactory = new SpiProviderFactory();
+
+        // 创建依赖的单例与注入器, 只测量原型的创建
+        providerManager.get(InjectedProvider.class).orElseThrow(IllegalStateException::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.close();
+        Thread.currentThread().setContextClassLoader(previousClassLoader);
+    }
+
+    /**
+     * 通过管理器创建原型, 使用缓存的注入器
+     */
+    @Benchmark
+    public InjectedService injector() {
+        return providerManager.get(InjectedProvider.class).orElse(null);
+    }
+
+    /**
+     * 引入注入器之前的反射创建过程
+     */
+    @Benchmark
+    public InjectedService reflect(Blackhole blackhole) throws Exception {
+        InjectedProvider provider = ReflectUtil.newInstance(InjectedProvider.class);
+
+        List<Field> fields = ReflectUtil.findFields(InjectedProvider.class, field -> field.isAnnotationPresent(Resource.class));
+        for (Field injectField : fields) {
+            TypeResolver reference = TypeResolverUtil.resolverActualType(injectField);
+            Object value = providerFactory.getProvider(reference, getResourceName(injectField)).orElseThrow(IllegalStateException::new);
+            ReflectUtil.setValue(provider, injectField, value);
+        }
+
+        List<Method> methods = ReflectUtil.findConcreteMethods(InjectedProvider.class, method -> method.getParameterCount() == 1 &&
+                AnnotationUtil.findAnnotation(method, Resource.class) != null);
+        for (Method injectMethod : methods) {
+            TypeResolver reference = TypeResolverUtil.resolverActualParamType(injectMethod);
+            Object value = providerFactory.getProvider(reference, getResourceName(injectMethod)).orElseThrow(IllegalStateException::new);
+            ReflectUtil.invoke(provider, injectMethod, value);
+        }
+
+        List<Method> initMethods = ReflectUtil.findConcreteMethods(InjectedProvider.class, method -> method.getParameterCount() == 0 && method.isAnnotationPresent(PostConstruct.class));
+        for (Method initMethod : initMethods) {
+            ReflectUtil.invoke(provider, initMethod);
+        }
+
+        blackhole.consume(ReflectUtil.findConcreteMethods(InjectedProvider.class, method -> method.getParameterCount() == 0 && method.isAnnotationPresent(PreDestroy.class)));
+        return provider;
+    }
+
+    /**
+     * 与原过程相同, 优先使用@Resource的名称
+     */
+    private static String getResourceName(AnnotatedElement element) {
+        Resource annotation = AnnotationUtil.findAnnotation(element, Resource.class);
+        if (annotation != null && StringUtil.isNotBlank(annotation.name())) {
+            return annotation.name();
+        }
+        ProviderNameExtractor extractor = ProviderNameExtractor.DEFAULT;
+        return element instanceof Field ? extractor.extract((Field) element) : extractor.extract((Method) element);
+    }
+
+    /**
+     * 被创建的服务
+     */
+    public interface InjectedService {
+        String name();
+    }
+
+    /**
+     * 原型服务提供者, 包含字段注入、setter注入与生命周期方法
+     */
+    @Provider(scope = ProviderScope.PROTOTYPE)
+    public static class InjectedProvider implements InjectedService {
+        @Resource
+        private BenchmarkService p000;
+        private BenchmarkService p001;
+        private boolean initialized;
+
+        @Resource
+        public void setP001(BenchmarkService p001) {
+            this.p001 = p001;
+        }
+
+        @PostConstruct
+        public void init() {
+            initialized = p000 != null && p001 != null;
+        }
+
+        @PreDestroy
+        public void destroy() {
+            initialized = false;
+        }
+
+        @Override
+        public String name() {
+            return initialized ? p000.name() + p001.name() : null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InjectionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
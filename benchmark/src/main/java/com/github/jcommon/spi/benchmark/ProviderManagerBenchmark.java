@@ -0,0 +1,215 @@
+package com.github.jcommon.spi.benchmark;
+
+import com.github.jcommon.spi.benchmark.BenchmarkProviders.AbstractBenchmarkService;
+import com.github.jcommon.spi.benchmark.BenchmarkProviders.BenchmarkService;
+import com.github.jcommon.spi.internals.SpiProviderFactory;
+import com.github.jcommon.spi.support.ProviderDescriptor;
+import com.github.jcommon.spi.support.ProviderManager;
+import com.github.jcommon.spi.support.ProviderRegistry;
+import com.github.jcommon.type.TypeResolver;
+import com.github.jcommon.type.TypeResolverUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProviderManager热路径基准测试, 服务提供者均已创建, 测量获取开销
+ * 每个线程在独立类加载器的注册表中注册providerCount个服务提供者, 并将线程上下文类加载器设置为该类加载器
+ * 运行: java -jar target/benchmarks.jar -prof gc, 或直接执行{@link #main(String[])}
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProviderManagerBenchmark {
+    /**
+     * 5 ~ 500个服务提供者, 按名称、类型获取的延迟不随数量增长
+     */
+    @Param({"5", "50", "500"})
+    public int providerCount;
+
+    private ClassLoader previousClassLoader;
+    private ProviderRegistry registry;
+    private ProviderManager<BenchmarkService> providerManager;
+    /**
+     * 注册表改为ClassValue之前的全局管理器Map, 作为{@link #load()}的对照
+     */
+    private ConcurrentMap<Class<?>, ProviderManager<?>> managerMap;
+    private SpiProviderFactory spiProviderFactory;
+    private TypeResolver singleReference;
+    private TypeResolver listReference;
+    /**
+     * 排序最后的服务提供者
+     */
+    private String lastName;
+    private Class<? extends BenchmarkService> lastClass;
+
+    /**
+     * 依赖注入点
+     */
+    private BenchmarkService single;
+    private List<BenchmarkService> list;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchFieldException {
+        ClassLoader classLoader = new URLClassLoader(new URL[0], ProviderManagerBenchmark.class.getClassLoader());
+        previousClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+
+        registry = ProviderRegistry.open(classLoader);
+        providerManager = registry.load(BenchmarkService.class);
+        List<Class<? extends BenchmarkService>> providers = BenchmarkProviders.PROVIDERS.subList(0, providerCount);
+        for (Class<? extends BenchmarkService> provider : providers) {
+            providerManager.register(provider);
+        }
+        // 创建所有服务提供者
+        for (Map.Entry<ProviderDescriptor<BenchmarkService>, BenchmarkService> entry : providerManager) {
+            entry.getValue();
+        }
+
+        ProviderDescriptor<BenchmarkService> last = providerManager.getProviderDescriptors().last();
+        lastName = last.getProviderName();
+        lastClass = last.getProviderClass();
+
+        managerMap = new ConcurrentHashMap<>(64);
+        managerMap.put(BenchmarkService.class, providerManager);
+
+        spiProviderFactory = new SpiProviderFactory();
+        singleReference = TypeResolverUtil.resolverActualType(ProviderManagerBenchmark.class.getDeclaredField("single"));
+        listReference = TypeResolverUtil.resolverActualType(ProviderManagerBenchmark.class.getDeclaredField("list"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.close();
+        Thread.currentThread().setContextClassLoader(previousClassLoader);
+    }
+
+    /**
+     * 通过线程上下文类加载器解析注册表获取管理器
+     */
+    @Benchmark
+    public ProviderManager<BenchmarkService> load() {
+        return ProviderManager.load(BenchmarkService.class);
+    }
+
+    /**
+     * 直接从注册表获取管理器
+     */
+    @Benchmark
+    public ProviderManager<BenchmarkService> registryLoad() {
+        return registry.load(BenchmarkService.class);
+    }
+
+    /**
+     * 对照: ConcurrentHashMap.computeIfAbsent获取管理器
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public ProviderManager<BenchmarkService> globalMapLoad() {
+        return (ProviderManager<BenchmarkService>) managerMap.computeIfAbsent(BenchmarkService.class, ProviderManagerBenchmark::absentManager);
+    }
+
+    private static ProviderManager<?> absentManager(Class<?> clazz) {
+        throw new IllegalStateException("manager is registered in setup: " + clazz);
+    }
+
+    @Benchmark
+    public Optional<BenchmarkService> getByName() {
+        return providerManager.get(lastName);
+    }
+
+    /**
+     * 已创建的单例返回缓存的已完成Future
+     */
+    @Benchmark
+    public CompletableFuture<BenchmarkService> getAsyncByName() {
+        return providerManager.getAsync(lastName);
+    }
+
+    @Benchmark
+    public Optional<BenchmarkService> getByClass() {
+        return providerManager.get(lastClass);
+    }
+
+    /**
+     * 对照: 建立名称索引之前按照名称遍历有序集合查找描述
+     */
+    @Benchmark
+    public Optional<ProviderDescriptor<BenchmarkService>> scanByName() {
+        return providerManager.getProviderDescriptors().stream().filter(d -> lastName.equals(d.getProviderName())).findFirst();
+    }
+
+    /**
+     * 对照: 建立类型索引之前按照类型遍历有序集合查找描述
+     */
+    @Benchmark
+    public Optional<ProviderDescriptor<BenchmarkService>> scanByClass() {
+        return providerManager.getProviderDescriptors().stream().filter(d -> d.getProviderClass() == lastClass).findFirst();
+    }
+
+    @Benchmark
+    public Optional<BenchmarkService> getAssignable() {
+        return providerManager.getAssignable(AbstractBenchmarkService.class);
+    }
+
+    @Benchmark
+    public Optional<BenchmarkService> getDefault() {
+        return providerManager.get();
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Map.Entry<ProviderDescriptor<BenchmarkService>, BenchmarkService> entry : providerManager) {
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public Optional<Object> spiFactorySingle() {
+        return spiProviderFactory.getProvider(singleReference, lastName);
+    }
+
+    @Benchmark
+    public Optional<Object> spiFactoryList() {
+        return spiProviderFactory.getProvider(listReference, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProviderManagerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.jcommon.spi.benchmark;
+
+import com.github.jcommon.spi.benchmark.BenchmarkProviders.BenchmarkService;
+import com.github.jcommon.spi.support.ProviderDescriptor;
+import com.github.jcommon.spi.support.ProviderManager;
+import com.github.jcommon.spi.support.ProviderRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProviderManager多线程扩展性基准测试, 所有线程共享同一个注册表, 测量1 ~ 64线程下已创建单例的获取吞吐量
+ * 按名称获取已创建的单例: 读取描述集快照(volatile), 在名称索引ConcurrentHashMap中查找描述, 读取描述的final实例槽与槽中的服务提供者(volatile), 最后包装为Optional
+ * 其中只有查找描述之后的实例读取是单次volatile读取, 全程不加锁也不写共享状态, 吞吐量应随线程数线性增长
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProviderManagerThreadsBenchmark {
+    private static final int PROVIDER_COUNT = 50;
+
+    private ProviderRegistry registry;
+    private ProviderManager<BenchmarkService> providerManager;
+    /**
+     * 排序最后的服务提供者
+     */
+    private String lastName;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ClassLoader classLoader = new URLClassLoader(new URL[0], ProviderManagerThreadsBenchmark.class.getClassLoader());
+        registry = ProviderRegistry.open(classLoader);
+        providerManager = registry.load(BenchmarkService.class);
+        for (Class<? extends BenchmarkService> provider : BenchmarkProviders.PROVIDERS.subList(0, PROVIDER_COUNT)) {
+            providerManager.register(provider);
+        }
+        // 创建所有服务提供者
+        for (Map.Entry<ProviderDescriptor<BenchmarkService>, BenchmarkService> entry : providerManager) {
+            entry.getValue();
+        }
+        lastName = providerManager.getProviderDescriptors().last().getProviderName();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<BenchmarkService> getByName01() {
+        return providerManager.get(lastName);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<BenchmarkService> getByName04() {
+        return providerManager.get(lastName);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Optional<BenchmarkService> getByName16() {
+        return providerManager.get(lastName);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Optional<BenchmarkService> getByName64() {
+        return providerManager.get(lastName);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ProviderManager<BenchmarkService> registryLoad01() {
+        return registry.load(BenchmarkService.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ProviderManager<BenchmarkService> registryLoad04() {
+        return registry.load(BenchmarkService.class);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public ProviderManager<BenchmarkService> registryLoad16() {
+        return registry.load(BenchmarkService.class);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public ProviderManager<BenchmarkService> registryLoad64() {
+        return registry.load(BenchmarkService.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProviderManagerThreadsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.jcommon.spi;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 延迟依赖注入, 配合{@link javax.annotation.Resource}或构造方法参数使用
+ * 注入public接口时注入代理, 第一次调用时才通过依赖注入工厂获取目标, 找不到依赖时调用抛出IllegalStateException
+ * 注入List/Collection/Iterable/Map集合时注入按照优先级排序的服务提供者视图, 元素第一次访问时才创建
+ * 集合通过{@link ProviderFactory#getLazyProvider(com.github.jcommon.type.TypeResolver, String)}获取, 依赖注入工厂不支持时与非延迟注入相同
+ * 其他类型与非延迟注入相同
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+public @interface Lazy {
+}
@@ -38,4 +38,24 @@ public @interface Provider {
      * 未配置注解Provider或未指定{@link Provider#providerFactory()}则根据接口是否配置注解SPI来确定怎么从ProviderFactory查找
      */
     boolean searchOther() default false;
+
+    /**
+     * 是否在预加载时创建, 参考{@link com.github.jcommon.spi.support.ProviderManager#preloadAll(java.util.concurrent.Executor)}
+     */
+    boolean eager() default false;
+
+    /**
+     * 服务提供者作用域, 只有单例支持预加载
+     */
+    ProviderScope scope() default ProviderScope.SINGLETON;
+
+    /**
+     * 池作用域的最大实例数量
+     */
+    int poolMaxSize() default 8;
+
+    /**
+     * 池作用域的实例最大空闲时间(毫秒), 小于等于0则不销毁空闲实例
+     */
+    long poolIdleTimeout() default 60_000L;
 }
@@ -16,4 +16,20 @@ public interface ProviderFactory {
      * 根据类型与名称获取Provider, 未获取到应该返回Optional.value=null, 即使获取一组只要未获取到都应该返回Optional.value=null
      */
     <T> Optional<T> getProvider(TypeResolver reference, String name);
+
+    /**
+     * 根据类型与名称延迟获取Provider, 用于{@link Lazy}依赖注入点, 集合依赖返回元素第一次访问时才创建的视图
+     * 默认与{@link #getProvider(TypeResolver, String)}相同
+     */
+    default <T> Optional<T> getLazyProvider(TypeResolver reference, String name) {
+        return this.getProvider(reference, name);
+    }
+
+    /**
+     * 检索结果是否可以被工厂链缓存, 包括未找到的结果
+     * 返回true时数据源变化需要调用{@link com.github.jcommon.spi.support.AdaptProviderFactory#invalidate()}, 默认不缓存
+     */
+    default boolean isCacheable() {
+        return false;
+    }
 }
@@ -0,0 +1,104 @@
+package com.github.jcommon.spi;
+
+/**
+ * SPI服务提供者指标收集接口
+ * 通过系统属性{@link #PROPERTY}启用, 值为jmx时使用内置的JMX实现, 否则为实现类全限定名称(需要无参构造方法)
+ * 未启用时不收集任何指标, 实现需要保证线程安全并尽量低开销
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public interface ProviderMetrics {
+    /**
+     * 启用指标收集的系统属性
+     */
+    String PROPERTY = "jcommon.spi.metrics";
+    /**
+     * 内置JMX实现
+     */
+    String JMX = "jmx";
+
+    /**
+     * 记录一次服务提供者查找
+     *
+     * @param type   SPI服务类型, 依赖注入工厂查找时为注入点元素类型
+     * @param lookup 查找方式
+     * @param found  是否找到服务提供者
+     */
+    void recordLookup(Class<?> type, Lookup lookup, boolean found);
+
+    /**
+     * 记录一次服务提供者实例获取, 只记录单例与线程作用域(当前线程的实例), 原型与池作用域不记录
+     *
+     * @param type SPI服务类型
+     * @param hit  实例是否已创建
+     */
+    void recordCache(Class<?> type, boolean hit);
+
+    /**
+     * 记录一次服务提供者创建失败
+     *
+     * @param type         SPI服务类型
+     * @param providerName 服务名称
+     * @param error        创建异常
+     */
+    void recordCreationFailure(Class<?> type, String providerName, Throwable error);
+
+    /**
+     * 记录一次阶段耗时
+     *
+     * @param type  SPI服务类型
+     * @param phase 阶段
+     * @param nanos 耗时(纳秒)
+     */
+    void recordTime(Class<?> type, Phase phase, long nanos);
+
+    /**
+     * 查找方式
+     */
+    enum Lookup {
+        /**
+         * 按照服务名称
+         */
+        NAME,
+        /**
+         * 按照服务提供者类型精准匹配
+         */
+        CLASS,
+        /**
+         * 按照服务提供者类型多态匹配
+         */
+        ASSIGNABLE,
+        /**
+         * 默认服务提供者
+         */
+        DEFAULT,
+        /**
+         * 依赖注入工厂链
+         */
+        FACTORY
+    }
+
+    /**
+     * 阶段
+     */
+    enum Phase {
+        /**
+         * 加载服务提供者描述
+         */
+        LOAD,
+        /**
+         * 创建服务提供者, 包括依赖注入与初始化
+         */
+        CREATE,
+        /**
+         * 依赖注入
+         */
+        INJECT,
+        /**
+         * 执行@PostConstruct
+         */
+        INITIALIZE
+    }
+}
@@ -4,6 +4,7 @@ package com.github.jcommon.spi;
 import java.beans.Introspector;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 
 /**
  * Provider名称提取接口
@@ -43,6 +44,13 @@ public interface ProviderNameExtractor {
         return decapitalize(methodName);
     }
 
+    /**
+     * 根据构造方法参数返回服务名称, 编译时未保留参数名称(-parameters)则返回null, 只按照类型获取
+     */
+    default String extract(Parameter parameter) {
+        return parameter.isNamePresent() ? decapitalize(parameter.getName()) : null;
+    }
+
     /**
      * 使用JavaBean规则转换服务名称
      */
@@ -0,0 +1,28 @@
+package com.github.jcommon.spi;
+
+/**
+ * 服务提供者作用域
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public enum ProviderScope {
+    /**
+     * 单例, 每个服务提供者描述只创建一个实例
+     */
+    SINGLETON,
+    /**
+     * 原型, 每次获取都创建新的实例, 复用缓存的创建与注入过程, 不执行@PreDestroy
+     */
+    PROTOTYPE,
+    /**
+     * 线程, 每个线程创建一个实例, 线程结束后由后台定期检查执行@PreDestroy, 线程池中的线程在关闭时执行
+     */
+    THREAD,
+    /**
+     * 对象池, 通过{@link com.github.jcommon.spi.support.ProviderManager#borrow(String)}借出与归还实例, 实例不在线程间共享
+     * 对象池大小与空闲时间参考{@link Provider#poolMaxSize()}, {@link Provider#poolIdleTimeout()}
+     */
+    POOLED
+}
@@ -38,4 +38,9 @@ public @interface SPI {
      * 未配置注解或默认则不检索其他ProviderFactory
      */
     boolean lookupOther() default false;
+
+    /**
+     * 是否在预加载时创建当前SPI的所有服务提供者, 参考{@link ProviderManager#preloadAll(java.util.concurrent.Executor)}
+     */
+    boolean eager() default false;
 }
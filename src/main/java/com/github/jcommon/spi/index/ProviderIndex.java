@@ -0,0 +1,171 @@
+package com.github.jcommon.spi.index;
+
+import com.github.jcommon.spi.ProviderScope;
+
+/**
+ * 编译期生成的服务提供者索引
+ * 由{@link ProviderIndexProcessor}在编译期写入META-INF/spi-index/SPI类型全限定名称, 每行格式:
+ * 服务提供者全限定名称=name,priority,providerFactory全限定名称,lookupOther,eager,scope,poolMaxSize,poolIdleTimeout
+ * 未配置的项为空字符串, 运行时按照默认规则解析
+ * 同时在META-INF/spi-index/spi-types写入所有生成了索引的SPI类型全限定名称, 每行一个, 运行时每个类加载器只读取一次
+ * 运行时spi-types中列出的SPI类型只使用索引, 不再扫描META-INF/spi/、META-INF/services/配置文件, 也不通过反射解析注解
+ * 因此这些SPI类型配置了注解Provider的服务提供者不需要配置文件即可加载, 而只在配置文件中声明的服务提供者(未配置注解或所在jar未生成索引)不会加载
+ * 未列出的SPI类型仍然扫描配置文件, 设置{@link #IGNORE_PROPERTY}为true时所有SPI类型都扫描配置文件
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public final class ProviderIndex {
+    /**
+     * 服务提供者索引目录
+     */
+    public static final String INDEX_DIRECTORY = "META-INF/spi-index/";
+    /**
+     * 生成了索引的SPI类型列表
+     */
+    public static final String TYPES_RESOURCE = INDEX_DIRECTORY + "spi-types";
+    /**
+     * 忽略索引的系统属性, 设置为true时始终扫描配置文件并解析注解
+     */
+    public static final String IGNORE_PROPERTY = "jcommon.spi.index.ignore";
+    /**
+     * 与{@link com.github.jcommon.spi.Provider#poolMaxSize()}默认值一致
+     */
+    private static final int DEFAULT_POOL_MAX_SIZE = 8;
+    /**
+     * 与{@link com.github.jcommon.spi.Provider#poolIdleTimeout()}默认值一致
+     */
+    private static final long DEFAULT_POOL_IDLE_TIMEOUT = 60_000L;
+    /**
+     * 索引值分隔符
+     */
+    private static final String SEPARATOR = ",";
+
+    private ProviderIndex() {
+    }
+
+    /**
+     * 是否忽略编译期索引
+     */
+    public static boolean isIgnored() {
+        return Boolean.getBoolean(IGNORE_PROPERTY);
+    }
+
+    /**
+     * 格式化索引值
+     */
+    public static String format(String name, int priority, String providerFactoryClassName, boolean lookupOther, boolean eager, ProviderScope scope, int poolMaxSize, long poolIdleTimeout) {
+        return nullToEmpty(name) + SEPARATOR + priority + SEPARATOR + nullToEmpty(providerFactoryClassName) + SEPARATOR + lookupOther + SEPARATOR + eager + SEPARATOR + scope.name()
+                + SEPARATOR + poolMaxSize + SEPARATOR + poolIdleTimeout;
+    }
+
+    /**
+     * 解析索引
+     *
+     * @param className 服务提供者全限定名称
+     * @param value     索引值
+     */
+    public static Entry parse(String className, String value) {
+        String[] parts = nullToEmpty(value).split(SEPARATOR, -1);
+        String name = part(parts, 0);
+        String priority = part(parts, 1);
+        String scope = part(parts, 5);
+        String poolMaxSize = part(parts, 6);
+        String poolIdleTimeout = part(parts, 7);
+        return new Entry(className.trim(), name,
+                priority.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(priority),
+                part(parts, 2),
+                Boolean.parseBoolean(part(parts, 3)),
+                Boolean.parseBoolean(part(parts, 4)),
+                scope.isEmpty() ? ProviderScope.SINGLETON : ProviderScope.valueOf(scope),
+                poolMaxSize.isEmpty() ? DEFAULT_POOL_MAX_SIZE : Integer.parseInt(poolMaxSize),
+                poolIdleTimeout.isEmpty() ? DEFAULT_POOL_IDLE_TIMEOUT : Long.parseLong(poolIdleTimeout));
+    }
+
+    private static String part(String[] parts, int index) {
+        return index < parts.length ? parts[index].trim() : "";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 服务提供者索引项
+     */
+    public static final class Entry {
+        private final String className;
+        private final String name;
+        private final int priority;
+        private final String providerFactoryClassName;
+        private final boolean lookupOther;
+        private final boolean eager;
+        private final ProviderScope scope;
+        private final int poolMaxSize;
+        private final long poolIdleTimeout;
+
+        private Entry(String className, String name, int priority, String providerFactoryClassName, boolean lookupOther, boolean eager, ProviderScope scope, int poolMaxSize, long poolIdleTimeout) {
+            this.className = className;
+            this.name = name;
+            this.priority = priority;
+            this.providerFactoryClassName = providerFactoryClassName;
+            this.lookupOther = lookupOther;
+            this.eager = eager;
+            this.scope = scope;
+            this.poolMaxSize = poolMaxSize;
+            this.poolIdleTimeout = poolIdleTimeout;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public String getProviderFactoryClassName() {
+            return providerFactoryClassName;
+        }
+
+        public boolean getLookupOther() {
+            return lookupOther;
+        }
+
+        public boolean isEager() {
+            return eager;
+        }
+
+        public ProviderScope getScope() {
+            return scope;
+        }
+
+        public int getPoolMaxSize() {
+            return poolMaxSize;
+        }
+
+        public long getPoolIdleTimeout() {
+            return poolIdleTimeout;
+        }
+
+        @Override
+        public String toString() {
+            return "ProviderIndex.Entry{" +
+                    "className='" + className + '\'' +
+                    ", name='" + name + '\'' +
+                    ", priority=" + priority +
+                    ", providerFactoryClassName='" + providerFactoryClassName + '\'' +
+                    ", lookupOther=" + lookupOther +
+                    ", eager=" + eager +
+                    ", scope=" + scope +
+                    ", poolMaxSize=" + poolMaxSize +
+                    ", poolIdleTimeout=" + poolIdleTimeout +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.github.jcommon.spi.index;
+
+import com.github.jcommon.spi.Provider;
+import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.spi.ProviderScope;
+import com.github.jcommon.spi.SPI;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 编译期读取注解{@link Provider}生成服务提供者索引, 运行时{@link com.github.jcommon.spi.support.ProviderManager}对索引中的SPI类型只使用索引, 不再扫描配置文件与解析注解
+ * 只处理配置了注解Provider的非抽象类, SPI类型为配置了注解{@link SPI}的所有超类型
+ * 增量编译时与已存在的索引合并, 保留未重新编译且仍配置了注解Provider的服务提供者
+ * 支持所有注解, 编译的源码中不存在注解Provider时也会执行, 以便移除已存在索引中不再配置注解Provider的服务提供者
+ * 本项目编译时不执行(proc:none), 依赖本项目的项目编译时通过META-INF/services/javax.annotation.processing.Processor自动发现
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+@SupportedAnnotationTypes("*")
+public class ProviderIndexProcessor extends AbstractProcessor {
+    /**
+     * SPI类型 -> 服务提供者全限定名称 -> 索引值
+     */
+    private final Map<String, Map<String, String>> indexMap = new TreeMap<>();
+    /**
+     * SPI类型 -> 产生索引的源码元素
+     */
+    private final Map<String, List<Element>> originatingMap = new TreeMap<>();
+    /**
+     * 本次编译处理的服务提供者全限定名称, 包括未实现SPI类型的, 合并时以本次结果为准
+     */
+    private final Set<String> processedClassNames = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            this.writeIndex();
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(Provider.class)) {
+            if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "@Provider is ignored on abstract type", element);
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+            processedClassNames.add(className);
+            Set<String> spiTypes = new LinkedHashSet<>();
+            this.findSpiTypes(type.asType(), spiTypes);
+            if (spiTypes.isEmpty()) {
+                // 未实现配置注解SPI的类型, 只能通过META-INF/spi/配置
+                continue;
+            }
+
+            String value = this.buildIndexValue(type);
+            for (String spiType : spiTypes) {
+                indexMap.computeIfAbsent(spiType, key -> new TreeMap<>()).put(className, value);
+                originatingMap.computeIfAbsent(spiType, key -> new ArrayList<>()).add(type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 查找所有配置了注解SPI的超类型
+     */
+    private void findSpiTypes(TypeMirror typeMirror, Set<String> spiTypes) {
+        for (TypeMirror superType : processingEnv.getTypeUtils().directSupertypes(typeMirror)) {
+            if (superType.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            TypeElement superElement = (TypeElement) ((DeclaredType) superType).asElement();
+            if (superElement.getAnnotation(SPI.class) != null) {
+                spiTypes.add(processingEnv.getElementUtils().getBinaryName(superElement).toString());
+            }
+            this.findSpiTypes(superType, spiTypes);
+        }
+    }
+
+    /**
+     * 解析注解Provider生成索引值, 与运行时解析注解的规则保持一致
+     */
+    private String buildIndexValue(TypeElement type) {
+        String name = "";
+        int priority = Integer.MAX_VALUE;
+        String providerFactoryClassName = "";
+        boolean lookupOther = false;
+        boolean eager = false;
+        ProviderScope scope = ProviderScope.SINGLETON;
+        int poolMaxSize = 0;
+        long poolIdleTimeout = 0;
+
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!Provider.class.getName().equals(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                continue;
+            }
+            Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+                Object value = entry.getValue().getValue();
+                switch (entry.getKey().getSimpleName().toString()) {
+                    case "name":
+                        name = ((String) value).trim();
+                        break;
+                    case "priority":
+                        int annPriority = (Integer) value;
+                        if (annPriority >= 0) {
+                            priority = annPriority;
+                        }
+                        break;
+                    case "providerFactory":
+                        TypeElement factoryElement = (TypeElement) ((DeclaredType) value).asElement();
+                        String factoryClassName = processingEnv.getElementUtils().getBinaryName(factoryElement).toString();
+                        providerFactoryClassName = ProviderFactory.class.getName().equals(factoryClassName) ? "" : factoryClassName;
+                        break;
+                    case "searchOther":
+                        lookupOther = (Boolean) value;
+                        break;
+                    case "eager":
+                        eager = (Boolean) value;
+                        break;
+                    case "scope":
+                        scope = ProviderScope.valueOf(((VariableElement) value).getSimpleName().toString());
+                        break;
+                    case "poolMaxSize":
+                        poolMaxSize = (Integer) value;
+                        break;
+                    case "poolIdleTimeout":
+                        poolIdleTimeout = (Long) value;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        return ProviderIndex.format(name, priority, providerFactoryClassName, lookupOther, eager, scope, poolMaxSize, poolIdleTimeout);
+    }
+
+    /**
+     * 写入索引文件, 与已存在的索引合并
+     * 本次编译未处理任何服务提供者时也需要重写已存在的索引, 移除不再配置注解Provider的服务提供者
+     */
+    private void writeIndex() {
+        Set<String> spiTypes = new TreeSet<>(this.readIndex(ProviderIndex.TYPES_RESOURCE));
+        spiTypes.addAll(indexMap.keySet());
+        if (spiTypes.isEmpty()) {
+            // 不存在索引也没有服务提供者
+            return;
+        }
+        Set<String> indexedSpiTypes = new TreeSet<>();
+        for (String spiType : spiTypes) {
+            Map<String, String> entries = new TreeMap<>();
+            for (String line : this.readIndex(ProviderIndex.INDEX_DIRECTORY + spiType)) {
+                int pos = line.indexOf('=');
+                if (pos <= 0) {
+                    continue;
+                }
+                String className = line.substring(0, pos).trim();
+                if (!processedClassNames.contains(className) && this.isProvider(className)) {
+                    // 未重新编译的服务提供者
+                    entries.put(className, line.substring(pos + 1));
+                }
+            }
+            entries.putAll(indexMap.getOrDefault(spiType, Collections.emptyMap()));
+
+            Element[] originatingElements = originatingMap.getOrDefault(spiType, Collections.emptyList()).toArray(new Element[0]);
+            try {
+                // 不再存在服务提供者的SPI类型写入空索引覆盖旧索引
+                FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ProviderIndex.INDEX_DIRECTORY + spiType, originatingElements);
+                try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                    for (Map.Entry<String, String> index : entries.entrySet()) {
+                        writer.write(index.getKey());
+                        writer.write('=');
+                        writer.write(index.getValue());
+                        writer.write('\n');
+                    }
+                }
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed write spi index " + spiType + ": " + e);
+            }
+            if (!entries.isEmpty()) {
+                indexedSpiTypes.add(spiType);
+            }
+        }
+
+        List<Element> allOriginatingElements = new ArrayList<>();
+        originatingMap.values().forEach(allOriginatingElements::addAll);
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ProviderIndex.TYPES_RESOURCE, allOriginatingElements.toArray(new Element[0]));
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String spiType : indexedSpiTypes) {
+                    writer.write(spiType);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed write spi index " + ProviderIndex.TYPES_RESOURCE + ": " + e);
+        }
+        indexMap.clear();
+        originatingMap.clear();
+        processedClassNames.clear();
+    }
+
+    /**
+     * 读取上次编译输出的索引文件, 不存在时返回空集合
+     */
+    private List<String> readIndex(String path) {
+        List<String> lines = new ArrayList<>();
+        try {
+            FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && line.charAt(0) != '#') {
+                        lines.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译或全量编译不存在索引文件
+        }
+        return lines;
+    }
+
+    /**
+     * 服务提供者是否仍然存在且配置了注解Provider
+     */
+    private boolean isProvider(String className) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+        return type != null && type.getAnnotation(Provider.class) != null;
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.jcommon.spi.internals;
+
+import com.github.jcommon.logger.Logger;
+import com.github.jcommon.logger.support.LoggerFactory;
+import com.github.jcommon.spi.ProviderMetrics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于JMX的指标收集, 每个SPI服务类型注册一个MBean: com.github.jcommon.spi:type=ProviderMetrics,spi=SPI服务类型全限定名称
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public class JmxProviderMetrics implements ProviderMetrics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmxProviderMetrics.class);
+
+    /**
+     * MBean域
+     */
+    private static final String DOMAIN = "com.github.jcommon.spi";
+    /**
+     * 依赖注入工厂查找时注入点类型未知
+     */
+    private static final String UNKNOWN_TYPE = "unknown";
+
+    /**
+     * SPI服务类型全限定名称 -> 指标, 使用名称避免引用类
+     */
+    private final Map<String, TypeMetrics> metricsMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordLookup(Class<?> type, Lookup lookup, boolean found) {
+        TypeMetrics metrics = this.getMetrics(type);
+        metrics.lookupCounts[lookup.ordinal()].increment();
+        if (!found) {
+            metrics.lookupMissCounts[lookup.ordinal()].increment();
+        }
+    }
+
+    @Override
+    public void recordCache(Class<?> type, boolean hit) {
+        TypeMetrics metrics = this.getMetrics(type);
+        if (hit) {
+            metrics.cacheHitCount.increment();
+        } else {
+            metrics.cacheMissCount.increment();
+        }
+    }
+
+    @Override
+    public void recordCreationFailure(Class<?> type, String providerName, Throwable error) {
+        this.getMetrics(type).creationFailureCount.increment();
+    }
+
+    @Override
+    public void recordTime(Class<?> type, Phase phase, long nanos) {
+        TypeMetrics metrics = this.getMetrics(type);
+        int index = phase.ordinal();
+        metrics.timerCounts[index].increment();
+        metrics.timerTotalNanos[index].add(nanos);
+        AtomicLong max = metrics.timerMaxNanos[index];
+        long current;
+        while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {
+            // 重试更新最大耗时
+        }
+    }
+
+    private TypeMetrics getMetrics(Class<?> type) {
+        String typeName = type == null ? UNKNOWN_TYPE : type.getName();
+        TypeMetrics metrics = metricsMap.get(typeName);
+        if (metrics == null) {
+            metrics = new TypeMetrics(typeName);
+            TypeMetrics previous = metricsMap.putIfAbsent(typeName, metrics);
+            if (previous != null) {
+                return previous;
+            }
+            register(metrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * 注册MBean, 注册失败不影响指标收集
+     */
+    private static void register(TypeMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=ProviderMetrics,spi=" + ObjectName.quote(metrics.type));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metrics, objectName);
+            }
+        } catch (Exception e) {
+            LOGGER.error("register provider metrics mbean {} failed {}", metrics.type, e.toString());
+        }
+    }
+
+    /**
+     * 单个SPI服务类型的指标
+     */
+    private static final class TypeMetrics implements ProviderMetricsMXBean {
+        private final String type;
+        private final LongAdder[] lookupCounts = newAdders(Lookup.values().length);
+        private final LongAdder[] lookupMissCounts = newAdders(Lookup.values().length);
+        private final LongAdder cacheHitCount = new LongAdder();
+        private final LongAdder cacheMissCount = new LongAdder();
+        private final LongAdder creationFailureCount = new LongAdder();
+        private final LongAdder[] timerCounts = newAdders(Phase.values().length);
+        private final LongAdder[] timerTotalNanos = newAdders(Phase.values().length);
+        private final AtomicLong[] timerMaxNanos = new AtomicLong[Phase.values().length];
+
+        private TypeMetrics(String type) {
+            this.type = type;
+            for (int i = 0; i < timerMaxNanos.length; i++) {
+                timerMaxNanos[i] = new AtomicLong();
+            }
+        }
+
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public Map<String, Long> getLookupCounts() {
+            return toMap(Lookup.values(), lookupCounts);
+        }
+
+        @Override
+        public Map<String, Long> getLookupMissCounts() {
+            return toMap(Lookup.values(), lookupMissCounts);
+        }
+
+        @Override
+        public long getCacheHitCount() {
+            return cacheHitCount.sum();
+        }
+
+        @Override
+        public long getCacheMissCount() {
+            return cacheMissCount.sum();
+        }
+
+        @Override
+        public long getCreationFailureCount() {
+            return creationFailureCount.sum();
+        }
+
+        @Override
+        public Map<String, Long> getTimerCounts() {
+            return toMap(Phase.values(), timerCounts);
+        }
+
+        @Override
+        public Map<String, Long> getTimerTotalNanos() {
+            return toMap(Phase.values(), timerTotalNanos);
+        }
+
+        @Override
+        public Map<String, Long> getTimerMaxNanos() {
+            Phase[] phases = Phase.values();
+            Map<String, Long> map = new LinkedHashMap<>(phases.length * 2);
+            for (Phase phase : phases) {
+                map.put(phase.name(), timerMaxNanos[phase.ordinal()].get());
+            }
+            return map;
+        }
+
+        private static LongAdder[] newAdders(int length) {
+            LongAdder[] adders = new LongAdder[length];
+            for (int i = 0; i < length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        private static Map<String, Long> toMap(Enum<?>[] keys, LongAdder[] adders) {
+            Map<String, Long> map = new LinkedHashMap<>(keys.length * 2);
+            for (Enum<?> key : keys) {
+                map.put(key.name(), adders[key.ordinal()].sum());
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.jcommon.spi.internals;
+
+import java.util.Map;
+
+/**
+ * 单个SPI服务类型的指标MBean
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public interface ProviderMetricsMXBean {
+    /**
+     * SPI服务类型
+     */
+    String getType();
+
+    /**
+     * 查找方式 -> 查找次数
+     */
+    Map<String, Long> getLookupCounts();
+
+    /**
+     * 查找方式 -> 未找到次数
+     */
+    Map<String, Long> getLookupMissCounts();
+
+    /**
+     * 实例已创建的获取次数
+     */
+    long getCacheHitCount();
+
+    /**
+     * 实例需要创建的获取次数
+     */
+    long getCacheMissCount();
+
+    /**
+     * 创建失败次数
+     */
+    long getCreationFailureCount();
+
+    /**
+     * 阶段 -> 执行次数
+     */
+    Map<String, Long> getTimerCounts();
+
+    /**
+     * 阶段 -> 累计耗时(纳秒)
+     */
+    Map<String, Long> getTimerTotalNanos();
+
+    /**
+     * 阶段 -> 最大耗时(纳秒)
+     */
+    Map<String, Long> getTimerMaxNanos();
+}
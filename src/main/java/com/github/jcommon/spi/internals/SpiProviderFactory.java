@@ -6,11 +6,13 @@ import com.github.jcommon.logger.Logger;
 import com.github.jcommon.logger.support.LoggerFactory;
 import com.github.jcommon.spi.support.ProviderManager;
 import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.spi.ProviderScope;
 import com.github.jcommon.collect.CollectionBean;
 import com.github.jcommon.type.TypeResolver;
 import com.github.jcommon.util.Safes;
 import com.github.jcommon.util.StringUtil;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -24,9 +26,29 @@ import java.util.Optional;
 public class SpiProviderFactory implements ProviderFactory {
     private static final Logger LOGGER = LoggerFactory.getLogger(SpiProviderFactory.class);
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> Optional<T> getProvider(TypeResolver reference, String name) {
+        return this.getProvider(reference, name, false);
+    }
+
+    /**
+     * 集合依赖注入按照优先级排序的延迟视图, 元素第一次访问时才创建
+     */
+    @Override
+    public <T> Optional<T> getLazyProvider(TypeResolver reference, String name) {
+        return this.getProvider(reference, name, true);
+    }
+
+    /**
+     * 注册服务提供者时使检索结果失效
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> getProvider(TypeResolver reference, String name, boolean lazy) {
         if (reference == null || Safes.isEmpty(reference.getElementTypes())) {
             return Optional.empty();
         }
@@ -41,6 +63,19 @@ public class SpiProviderFactory implements ProviderFactory {
             return getProvider((Class<T>) containerType, name);
         }
 
+        if (lazy && StringUtil.isBlank(name)) {
+            // 延迟视图
+            if (containerType == Map.class) {
+                Map<String, ?> view = ProviderManager.load(elementClass).asMap();
+                return view.isEmpty() ? Optional.empty() : Optional.of((T) view);
+            }
+            if (containerType.isAssignableFrom(List.class)) {
+                // List, Collection, Iterable
+                List<?> view = ProviderManager.load(elementClass).asList();
+                return view.isEmpty() ? Optional.empty() : Optional.of((T) view);
+            }
+        }
+
         // 处理集合
         CollectionBean collectionBean = CollectionFactory.of(containerType);
         if (collectionBean == null) {
@@ -56,7 +91,8 @@ public class SpiProviderFactory implements ProviderFactory {
             // 所有
             for (Map.Entry<ProviderDescriptor<T>, T> entry : providerManager) {
                 T value;
-                if (entry == null || (value = entry.getValue()) == null) {
+                if (entry == null || entry.getKey().getScope() == ProviderScope.POOLED || (value = entry.getValue()) == null) {
+                    // 池作用域只能借出
                     continue;
                 }
                 collectionBean.add(entry.getKey(), value);
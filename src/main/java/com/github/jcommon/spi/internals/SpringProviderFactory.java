@@ -4,6 +4,7 @@ import com.github.jcommon.collect.support.CollectionFactory;
 import com.github.jcommon.logger.Logger;
 import com.github.jcommon.logger.support.LoggerFactory;
 import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.spi.support.AdaptProviderFactory;
 import com.github.jcommon.collect.CollectionBean;
 import com.github.jcommon.type.TypeResolver;
 import com.github.jcommon.util.StringUtil;
@@ -11,13 +12,21 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
@@ -31,26 +40,51 @@ import java.util.concurrent.CopyOnWriteArraySet;
  * @date 2019-11-10
  */
 @Configuration
-public class SpringProviderFactory implements ProviderFactory, BeanFactoryPostProcessor {
+public class SpringProviderFactory implements ProviderFactory, BeanFactoryPostProcessor, ApplicationListener<ApplicationContextEvent> {
     private static final Logger LOGGER = LoggerFactory.getLogger(SpringProviderFactory.class);
 
     /**
      * BeanFactory实例
      */
     private static final Set<BeanFactory> BEAN_FACTORY_SET = new CopyOnWriteArraySet<>();
+    /**
+     * (依赖类型, 服务名称) -> 找到依赖的BeanFactory, 容器刷新、关闭或BeanFactory变化时清空
+     */
+    private static final Map<OwnerKey, BeanFactory> OWNER_MAP = new ConcurrentHashMap<>();
+    /**
+     * BeanFactory -> Bean类型 -> 包括父容器的Bean名称, 容器刷新、关闭或BeanFactory变化时清空
+     */
+    private static final Map<BeanFactory, Map<Class<?>, String[]>> BEAN_NAMES_MAP = new ConcurrentHashMap<>();
 
     /**
      * 添加一个BeanFactory
      */
     public static boolean addBeanFactory(BeanFactory beanFactory) {
-        return beanFactory != null && BEAN_FACTORY_SET.add(beanFactory);
+        if (beanFactory != null && BEAN_FACTORY_SET.add(beanFactory)) {
+            clearCache();
+            return true;
+        }
+        return false;
     }
 
     /**
      * 移除一个BeanFactory
      */
     public static boolean removeBeanFactory(BeanFactory beanFactory) {
-        return !BEAN_FACTORY_SET.isEmpty() && BEAN_FACTORY_SET.remove(beanFactory);
+        if (!BEAN_FACTORY_SET.isEmpty() && BEAN_FACTORY_SET.remove(beanFactory)) {
+            clearCache();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 清空解析缓存与依赖注入未找到结果
+     */
+    private static void clearCache() {
+        OWNER_MAP.clear();
+        BEAN_NAMES_MAP.clear();
+        AdaptProviderFactory.invalidate();
     }
 
     @Override
@@ -58,6 +92,16 @@ public class SpringProviderFactory implements ProviderFactory, BeanFactoryPostPr
         addBeanFactory(beanFactory);
     }
 
+    /**
+     * 容器刷新或关闭后Bean可能变化, 清空缓存
+     */
+    @Override
+    public void onApplicationEvent(ApplicationContextEvent event) {
+        if (event instanceof ContextRefreshedEvent || event instanceof ContextClosedEvent) {
+            clearCache();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private static <T> T getBean(BeanFactory beanFactory, String name, TypeResolver reference) {
         Class<?> containerType;
@@ -76,14 +120,19 @@ public class SpringProviderFactory implements ProviderFactory, BeanFactoryPostPr
 
         Class<T> elementClass = reference.getElementClass();
         if (StringUtil.isBlank(name) && beanFactory instanceof ListableBeanFactory) {
-            ListableBeanFactory listableBeanFactory = (ListableBeanFactory) beanFactory;
-            Map<String, T> beanMap = BeanFactoryUtils.beansOfTypeIncludingAncestors(listableBeanFactory, elementClass);
-            for (Map.Entry<String, T> entry : beanMap.entrySet()) {
-                collectionBean.add(entry.getKey(), entry.getValue());
+            // 使用缓存的Bean名称构建集合, 不再每次遍历容器层级
+            for (String beanName : getBeanNames((ListableBeanFactory) beanFactory, elementClass)) {
+                T bean = getBeanAsRaw(beanFactory, beanName, elementClass);
+                if (bean != null) {
+                    collectionBean.add(beanName, bean);
+                }
             }
         } else {
             // 单一查找
-            collectionBean.add(name, getBeanAsRaw(beanFactory, name, elementClass));
+            T bean = getBeanAsRaw(beanFactory, name, elementClass);
+            if (bean != null) {
+                collectionBean.add(name, bean);
+            }
         }
         if (collectionBean.isEmpty()) {
             return null;
@@ -91,19 +140,69 @@ public class SpringProviderFactory implements ProviderFactory, BeanFactoryPostPr
         return collectionBean.getCollection();
     }
 
+    /**
+     * 获取包括父容器的指定类型Bean名称, 按照BeanFactory与类型缓存
+     * 不使用computeIfAbsent, 获取过程中可能初始化FactoryBean并重入
+     */
+    private static String[] getBeanNames(ListableBeanFactory beanFactory, Class<?> type) {
+        Map<Class<?>, String[]> typeMap = BEAN_NAMES_MAP.get(beanFactory);
+        if (typeMap == null) {
+            typeMap = new ConcurrentHashMap<>();
+            Map<Class<?>, String[]> previous = BEAN_NAMES_MAP.putIfAbsent(beanFactory, typeMap);
+            if (previous != null) {
+                typeMap = previous;
+            }
+        }
+        String[] beanNames = typeMap.get(type);
+        if (beanNames == null) {
+            beanNames = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(beanFactory, type);
+            typeMap.put(type, beanNames);
+        }
+        return beanNames;
+    }
+
+    /**
+     * 获取Bean, 先检查是否存在, 不存在返回null, 避免抛出NoSuchBeanDefinitionException
+     */
     @SuppressWarnings("unchecked")
     private static <T> T getBeanAsRaw(BeanFactory beanFactory, String name, Class<T> type) {
-        if (type != null) {
-            if (StringUtil.isNotBlank(name)) {
-                // 按照name, type寻找
-                return beanFactory.getBean(name, type);
+        try {
+            if (type != null) {
+                if (StringUtil.isNotBlank(name)) {
+                    // 按照name, type寻找
+                    return beanFactory.containsBean(name) && beanFactory.isTypeMatch(name, type) ? beanFactory.getBean(name, type) : null;
+                }
+                // 没有name, 按照type寻找
+                if (beanFactory instanceof ListableBeanFactory) {
+                    String[] beanNames = getBeanNames((ListableBeanFactory) beanFactory, type);
+                    if (beanNames.length == 0) {
+                        return null;
+                    }
+                    if (beanNames.length == 1) {
+                        return beanFactory.getBean(beanNames[0], type);
+                    }
+                }
+                // 多个Bean由BeanFactory按照primary选择
+                return beanFactory.getBean(type);
             }
-            // 没有name, 按照type寻找
-            return beanFactory.getBean(type);
+
+            // 没有type, 按照name寻找
+            return beanFactory.containsBean(name) ? (T) beanFactory.getBean(name) : null;
+        } catch (NoUniqueBeanDefinitionException e) {
+            // 多个Bean且没有primary, 不能当作未找到
+            throw e;
+        } catch (NoSuchBeanDefinitionException e) {
+            // 不可列举的BeanFactory按照type寻找, 或检查之后Bean被移除
+            return null;
         }
+    }
 
-        // 没有type, 按照name寻找
-        return (T) beanFactory.getBean(name);
+    /**
+     * 容器添加, 移除, 刷新与关闭时使检索结果失效
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
     }
 
     @Override
@@ -117,12 +216,57 @@ public class SpringProviderFactory implements ProviderFactory, BeanFactoryPostPr
             return Optional.empty();
         }
 
+        OwnerKey ownerKey = new OwnerKey(reference, name);
+        BeanFactory owner = OWNER_MAP.get(ownerKey);
+        if (owner != null) {
+            // 优先从上次找到依赖的BeanFactory获取
+            T bean = getBean(owner, name, reference);
+            if (bean != null) {
+                return Optional.of(bean);
+            }
+            OWNER_MAP.remove(ownerKey, owner);
+        }
+
         for (BeanFactory beanFactory : BEAN_FACTORY_SET) {
+            if (beanFactory == owner) {
+                continue;
+            }
             T bean = getBean(beanFactory, name, reference);
             if (bean != null) {
+                OWNER_MAP.put(ownerKey, beanFactory);
                 return Optional.of(bean);
             }
         }
         return Optional.empty();
     }
+
+    /**
+     * 解析缓存键
+     */
+    private static final class OwnerKey {
+        private final TypeResolver reference;
+        private final String name;
+
+        private OwnerKey(TypeResolver reference, String name) {
+            this.reference = reference;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            OwnerKey that = (OwnerKey) o;
+            return Objects.equals(reference, that.reference) && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reference, name);
+        }
+    }
 }
@@ -1,11 +1,15 @@
 package com.github.jcommon.spi.support;
 
 import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.spi.ProviderMetrics;
 import com.github.jcommon.type.TypeResolver;
 import com.github.jcommon.util.IterableUtil;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 服务提供者工厂适配
@@ -15,15 +19,28 @@ import java.util.Optional;
  * @date 2021-01-30
  */
 public class AdaptProviderFactory implements ProviderFactory {
+    /**
+     * 检索结果缓存的最大数量, 超过时清空
+     */
+    private static final int MAX_RESOLUTION_SIZE = 1024;
+    /**
+     * 检索结果版本, 注册服务提供者或依赖注入工厂数据源变化时递增, 所有检索结果失效
+     */
+    private static final AtomicInteger RESOLUTION_VERSION = new AtomicInteger();
+
     private final Class<? extends ProviderFactory> providerFactoryClass;
     private final boolean lookupOther;
     private final Iterable<ProviderFactory> providerFactories;
+    /**
+     * (依赖类型, 服务名称) -> 上次检索结果: 找到依赖的工厂, 或整个工厂链都未找到
+     */
+    private final Map<LookupKey, Resolution> resolutionMap = new ConcurrentHashMap<>();
 
-    private AdaptProviderFactory(Class<? extends ProviderFactory> providerFactoryClass, boolean lookupOther, ProviderFactory reference) {
+    private AdaptProviderFactory(ProviderRegistry registry, Class<? extends ProviderFactory> providerFactoryClass, boolean lookupOther, ProviderFactory reference) {
         this.providerFactoryClass = providerFactoryClass;
         this.lookupOther = lookupOther;
 
-        ProviderManager<ProviderFactory> providerManager = ProviderManager.load(ProviderFactory.class);
+        ProviderManager<ProviderFactory> providerManager = registry.load(ProviderFactory.class);
         // 获取设置服务提供者工厂
         ProviderFactory allocateProviderFactory = providerFactoryClass == null || providerFactoryClass == ProviderFactory.class ? null : providerManager.register(providerFactoryClass).get(providerFactoryClass).orElse(null);
         if (!this.lookupOther) {
@@ -63,16 +80,97 @@ public class AdaptProviderFactory implements ProviderFactory {
 
     @Override
     public <T> Optional<T> getProvider(TypeResolver reference, String providerName) {
-        for (ProviderFactory factory : providerFactories) {
-            if (factory == null) {
-                continue;
+        return this.getProvider(reference, providerName, false);
+    }
+
+    @Override
+    public <T> Optional<T> getLazyProvider(TypeResolver reference, String providerName) {
+        return this.getProvider(reference, providerName, true);
+    }
+
+    private <T> Optional<T> getProvider(TypeResolver reference, String providerName, boolean lazy) {
+        LookupKey lookupKey = new LookupKey(reference, providerName);
+        int version = RESOLUTION_VERSION.get();
+        Resolution resolution = resolutionMap.get(lookupKey);
+        Optional<T> optional = null;
+        if (resolution != null && resolution.version == version) {
+            if (resolution.factory == null) {
+                // 之前未找到且之后没有注册新的服务提供者
+                optional = Optional.empty();
+            } else {
+                // 直接使用上次找到依赖的工厂
+                optional = getProvider(resolution.factory, reference, providerName, lazy);
+                if (!optional.isPresent()) {
+                    optional = null;
+                }
+            }
+        }
+        if (optional == null) {
+            optional = this.lookup(lookupKey, version, lazy);
+        }
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(reference == null ? null : reference.getElementClass(), ProviderMetrics.Lookup.FACTORY, optional.isPresent());
+        }
+        return optional;
+    }
+
+    /**
+     * 按照顺序检索服务提供者工厂
+     */
+    private <T> Optional<T> lookup(LookupKey lookupKey, int version, boolean lazy) {
+        TypeResolver reference = lookupKey.reference;
+        String providerName = lookupKey.providerName;
+        Object event = ProviderEvents.beginFactoryResolve();
+        ProviderFactory satisfied = null;
+        // 之前检索的工厂结果都可以缓存时才记录检索结果
+        boolean cacheable = true;
+        try {
+            for (ProviderFactory factory : providerFactories) {
+                if (factory == null) {
+                    continue;
+                }
+                Optional<T> optional = getProvider(factory, reference, providerName, lazy);
+                if (optional.isPresent()) {
+                    satisfied = factory;
+                    if (cacheable) {
+                        this.putResolution(lookupKey, new Resolution(version, factory));
+                    }
+                    return optional;
+                }
+                cacheable = cacheable && factory.isCacheable();
+            }
+            // 工厂抛出异常时不记录, 之后的检索重新抛出真实异常
+            if (cacheable) {
+                this.putResolution(lookupKey, new Resolution(version, null));
             }
-            Optional<T> optional = factory.getProvider(reference, providerName);
-            if (optional.isPresent()) {
-                return optional;
+            return Optional.empty();
+        } finally {
+            ProviderEvents.commitFactoryResolve(event, reference == null ? null : reference.getElementClass(), providerName, satisfied);
+        }
+    }
+
+    private void putResolution(LookupKey lookupKey, Resolution resolution) {
+        if (resolutionMap.size() >= MAX_RESOLUTION_SIZE) {
+            resolutionMap.clear();
+        }
+        resolutionMap.put(lookupKey, resolution);
+    }
+
+    /**
+     * 工厂链的所有工厂结果都可以缓存时才可以缓存
+     */
+    @Override
+    public boolean isCacheable() {
+        for (ProviderFactory factory : providerFactories) {
+            if (factory != null && !factory.isCacheable()) {
+                return false;
             }
         }
-        return Optional.empty();
+        return true;
+    }
+
+    private static <T> Optional<T> getProvider(ProviderFactory factory, TypeResolver reference, String providerName, boolean lazy) {
+        return lazy ? factory.getLazyProvider(reference, providerName) : factory.getProvider(reference, providerName);
     }
 
     @Override
@@ -84,7 +182,117 @@ public class AdaptProviderFactory implements ProviderFactory {
                 '}';
     }
 
+    /**
+     * 使所有检索结果失效, 在注册服务提供者或依赖注入工厂的数据源变化(如Spring容器刷新)时调用
+     * {@link ProviderFactory#isCacheable()}返回true的第三方依赖注入工厂在数据源变化时需要调用
+     */
+    public static void invalidate() {
+        RESOLUTION_VERSION.incrementAndGet();
+    }
+
     public static ProviderFactory of(Class<? extends ProviderFactory> providerFactoryClass, Boolean lookupOther, ProviderFactory reference) {
-        return new AdaptProviderFactory(providerFactoryClass, Boolean.TRUE.equals(lookupOther), reference);
+        return of(ProviderRegistry.current(), providerFactoryClass, lookupOther, reference);
+    }
+
+    /**
+     * 使用指定注册表中的服务提供者工厂
+     */
+    static ProviderFactory of(ProviderRegistry registry, Class<? extends ProviderFactory> providerFactoryClass, Boolean lookupOther, ProviderFactory reference) {
+        if (providerFactoryClass == ProviderFactory.class) {
+            providerFactoryClass = null;
+        }
+        boolean other = Boolean.TRUE.equals(lookupOther);
+
+        // 相同配置的工厂链只构建一次
+        Map<Object, ProviderFactory> adaptProviderFactoryMap = registry.getAdaptProviderFactoryMap();
+        ChainKey chainKey = new ChainKey(providerFactoryClass, other, reference);
+        ProviderFactory providerFactory = adaptProviderFactoryMap.get(chainKey);
+        if (providerFactory == null) {
+            // 不使用computeIfAbsent, 构建过程中会获取服务提供者工厂, 可能重入
+            providerFactory = new AdaptProviderFactory(registry, providerFactoryClass, other, reference);
+            ProviderFactory previous = adaptProviderFactoryMap.putIfAbsent(chainKey, providerFactory);
+            if (previous != null) {
+                providerFactory = previous;
+            }
+        }
+        return providerFactory;
+    }
+
+    /**
+     * 工厂链缓存键, 引用的工厂按照实例比较
+     */
+    private static final class ChainKey {
+        private final Class<? extends ProviderFactory> providerFactoryClass;
+        private final boolean lookupOther;
+        private final ProviderFactory reference;
+
+        private ChainKey(Class<? extends ProviderFactory> providerFactoryClass, boolean lookupOther, ProviderFactory reference) {
+            this.providerFactoryClass = providerFactoryClass;
+            this.lookupOther = lookupOther;
+            this.reference = reference;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ChainKey that = (ChainKey) o;
+            return lookupOther == that.lookupOther && providerFactoryClass == that.providerFactoryClass && reference == that.reference;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(providerFactoryClass, lookupOther, System.identityHashCode(reference));
+        }
+    }
+
+    /**
+     * 检索结果
+     */
+    private static final class Resolution {
+        private final int version;
+        /**
+         * 找到依赖的工厂, 未找到为null
+         */
+        private final ProviderFactory factory;
+
+        private Resolution(int version, ProviderFactory factory) {
+            this.version = version;
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * 检索结果缓存键
+     */
+    private static final class LookupKey {
+        private final TypeResolver reference;
+        private final String providerName;
+
+        private LookupKey(TypeResolver reference, String providerName) {
+            this.reference = reference;
+            this.providerName = providerName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            LookupKey that = (LookupKey) o;
+            return Objects.equals(reference, that.reference) && Objects.equals(providerName, that.providerName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reference, providerName);
+        }
     }
 }
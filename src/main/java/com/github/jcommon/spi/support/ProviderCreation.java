@@ -0,0 +1,110 @@
+package com.github.jcommon.spi.support;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一次服务提供者创建, 同一个服务提供者同时只有一次创建, 其他线程等待创建完成
+ * 创建线程在实例化之后提前暴露引用, 只用于当前线程的循环依赖或线程间相互等待形成的循环依赖
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+final class ProviderCreation<T> {
+    /**
+     * 线程正在等待的创建, 用于检测线程间循环等待
+     */
+    private static final Map<Thread, ProviderCreation<?>> WAITING_CREATION_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 创建线程
+     */
+    private final Thread owner = Thread.currentThread();
+    /**
+     * 创建结果
+     */
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+    /**
+     * 实例化之后, 依赖注入与初始化之前提前暴露的引用
+     */
+    private volatile T early;
+
+    /**
+     * 当前线程是否为创建线程
+     */
+    boolean isOwner() {
+        return owner == Thread.currentThread();
+    }
+
+    T getEarly() {
+        return early;
+    }
+
+    void setEarly(T early) {
+        this.early = early;
+    }
+
+    void complete(T provider) {
+        future.complete(provider);
+    }
+
+    void completeExceptionally(Throwable e) {
+        future.completeExceptionally(e);
+    }
+
+    /**
+     * 等待其他线程创建完成, 如果等待会形成循环则返回提前暴露的引用
+     */
+    T await() {
+        Thread current = Thread.currentThread();
+        // 先登记再检测, 两个线程同时等待对方时至少有一个能检测到循环
+        WAITING_CREATION_MAP.put(current, this);
+        try {
+            if (this.isWaitingFor(current)) {
+                T provider = early;
+                if (provider == null) {
+                    throw new IllegalStateException("circular reference: provider is in creating by " + owner.getName());
+                }
+                return provider;
+            }
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause == null ? e.getMessage() : cause.getMessage(), cause == null ? e : cause);
+        } finally {
+            WAITING_CREATION_MAP.remove(current);
+        }
+    }
+
+    /**
+     * 创建线程是否直接或间接等待指定线程
+     */
+    private boolean isWaitingFor(Thread thread) {
+        Thread waiting = owner;
+        for (int i = 0, size = WAITING_CREATION_MAP.size(); i <= size; i++) {
+            if (waiting == thread) {
+                return true;
+            }
+            ProviderCreation<?> creation = WAITING_CREATION_MAP.get(waiting);
+            if (creation == null) {
+                return false;
+            }
+            waiting = creation.owner;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderCreation{" +
+                "owner=" + owner.getName() +
+                ", done=" + future.isDone() +
+                '}';
+    }
+}
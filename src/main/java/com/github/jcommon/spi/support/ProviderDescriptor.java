@@ -1,29 +1,49 @@
 package com.github.jcommon.spi.support;
 
 import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.spi.ProviderScope;
 
 import java.util.Objects;
 
 /**
  * 服务提供者描述模型
+ * 通过编译期索引构建的描述只保存类全限定名称, 在第一次获取服务提供者类型时才加载类, 类初始化延迟到创建实例时
+ * 每个描述持有自己的实例槽, 描述只属于构建它的服务提供者管理器, 实例槽不参与比较与相等判断
  *
  * @author shijian
  * @email shijianws@163.com
  * @date 2021-01-30
  */
 public class ProviderDescriptor<T> implements Comparable<ProviderDescriptor<T>> {
-    private final Class<? extends T> providerClass;
+    private final String providerClassName;
+    private final ClassLoader classLoader;
+    private volatile Class<? extends T> providerClass;
     private final String providerName;
     private final int priority;
     private final Class<? extends ProviderFactory> providerFactoryClass;
     private final boolean lookupOther;
-
-    private ProviderDescriptor(Class<? extends T> providerClass, String providerName, int priority, Class<? extends ProviderFactory> providerFactoryClass, boolean lookupOther) {
+    private final boolean eager;
+    private final ProviderScope scope;
+    private final int poolMaxSize;
+    private final long poolIdleTimeout;
+    /**
+     * 实例槽, 已创建的服务提供者只需要读取final字段与一次volatile字段
+     */
+    private final ProviderSlot<T> slot;
+
+    private ProviderDescriptor(String providerClassName, ClassLoader classLoader, Class<? extends T> providerClass, String providerName, int priority, Class<? extends ProviderFactory> providerFactoryClass, boolean lookupOther, boolean eager, ProviderScope scope, int poolMaxSize, long poolIdleTimeout) {
+        this.providerClassName = providerClassName;
+        this.classLoader = classLoader;
         this.providerClass = providerClass;
         this.providerName = providerName;
         this.priority = priority;
         this.providerFactoryClass = providerFactoryClass;
         this.lookupOther = lookupOther;
+        this.eager = eager;
+        this.scope = scope;
+        this.poolMaxSize = poolMaxSize;
+        this.poolIdleTimeout = poolIdleTimeout;
+        this.slot = new ProviderSlot<>(scope);
     }
 
     @Override
@@ -46,8 +66,35 @@ public class ProviderDescriptor<T> implements Comparable<ProviderDescriptor<T>>
         return hashCode() - o.hashCode();
     }
 
+    /**
+     * 获取服务提供者类型, 延迟加载的描述在第一次调用时加载类, 但不执行类初始化
+     */
+    @SuppressWarnings("unchecked")
     public Class<? extends T> getProviderClass() {
-        return providerClass;
+        Class<? extends T> clazz = providerClass;
+        if (clazz == null) {
+            Object event = ProviderEvents.beginClassLoad();
+            try {
+                clazz = (Class<? extends T>) Class.forName(providerClassName, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("class " + providerClassName + " not found", e);
+            } finally {
+                ProviderEvents.commitClassLoad(event, providerClassName);
+            }
+            providerClass = clazz;
+        }
+        return clazz;
+    }
+
+    public String getProviderClassName() {
+        return providerClassName;
+    }
+
+    /**
+     * 服务提供者类型是否已加载
+     */
+    public boolean isLoaded() {
+        return providerClass != null;
     }
 
     public String getProviderName() {
@@ -66,6 +113,35 @@ public class ProviderDescriptor<T> implements Comparable<ProviderDescriptor<T>>
         return lookupOther;
     }
 
+    /**
+     * 是否在预加载时创建
+     */
+    public boolean isEager() {
+        return eager;
+    }
+
+    public ProviderScope getScope() {
+        return scope;
+    }
+
+    /**
+     * 池作用域的最大实例数量
+     */
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    /**
+     * 池作用域的实例最大空闲时间(毫秒)
+     */
+    public long getPoolIdleTimeout() {
+        return poolIdleTimeout;
+    }
+
+    ProviderSlot<T> getSlot() {
+        return slot;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -75,26 +151,45 @@ public class ProviderDescriptor<T> implements Comparable<ProviderDescriptor<T>>
             return false;
         }
         ProviderDescriptor<?> that = (ProviderDescriptor<?>) o;
-        return Objects.equals(providerClass, that.providerClass) && Objects.equals(providerName, that.providerName);
+        return Objects.equals(providerClassName, that.providerClassName) && Objects.equals(providerName, that.providerName);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(providerClass, providerName);
+        return Objects.hash(providerClassName, providerName);
     }
 
     @Override
     public String toString() {
         return "ProviderDescriptor{" +
-                "providerClass=" + providerClass +
+                "providerClass=" + providerClassName +
                 ", providerName='" + providerName + '\'' +
                 ", priority=" + priority +
                 ", factory=" + providerFactoryClass +
                 ", lookupOther=" + lookupOther +
+                ", eager=" + eager +
+                ", scope=" + scope +
+                ", poolMaxSize=" + poolMaxSize +
+                ", poolIdleTimeout=" + poolIdleTimeout +
                 '}';
     }
 
     public static <T> ProviderDescriptor<T> of(Class<? extends T> providerClass, String providerName, int priority, Class<? extends ProviderFactory> providerFactoryClass, Boolean lookupOther) {
-        return new ProviderDescriptor<>(providerClass, providerName, priority, providerFactoryClass, Boolean.TRUE.equals(lookupOther));
+        return of(providerClass, providerName, priority, providerFactoryClass, lookupOther, false, ProviderScope.SINGLETON, 0, 0);
+    }
+
+    static <T> ProviderDescriptor<T> of(Class<? extends T> providerClass, String providerName, int priority, Class<? extends ProviderFactory> providerFactoryClass, Boolean lookupOther, boolean eager, ProviderScope scope, int poolMaxSize, long poolIdleTimeout) {
+        return new ProviderDescriptor<>(providerClass.getName(), providerClass.getClassLoader(), providerClass, providerName, priority, providerFactoryClass, Boolean.TRUE.equals(lookupOther), eager, scope, poolMaxSize, poolIdleTimeout);
+    }
+
+    /**
+     * 构建延迟加载类型的描述
+     */
+    public static <T> ProviderDescriptor<T> of(String providerClassName, ClassLoader classLoader, String providerName, int priority, Class<? extends ProviderFactory> providerFactoryClass, Boolean lookupOther) {
+        return of(providerClassName, classLoader, providerName, priority, providerFactoryClass, lookupOther, false, ProviderScope.SINGLETON, 0, 0);
+    }
+
+    static <T> ProviderDescriptor<T> of(String providerClassName, ClassLoader classLoader, String providerName, int priority, Class<? extends ProviderFactory> providerFactoryClass, Boolean lookupOther, boolean eager, ProviderScope scope, int poolMaxSize, long poolIdleTimeout) {
+        return new ProviderDescriptor<>(providerClassName, classLoader, null, providerName, priority, providerFactoryClass, Boolean.TRUE.equals(lookupOther), eager, scope, poolMaxSize, poolIdleTimeout);
     }
 }
@@ -0,0 +1,301 @@
+package com.github.jcommon.spi.support;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDK Flight Recorder事件, 记录描述加载、类加载、服务提供者创建、依赖注入、工厂检索与生命周期方法执行
+ * 运行环境不存在jdk.jfr或系统属性{@link #JFR_PROPERTY}为false时不记录, JFR未开启记录对应事件时只创建一个事件对象
+ * 事件通过jdk.jfr.EventFactory动态定义并反射调用, 编译不依赖jdk.jfr, 支持Java 8编译与运行
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+final class ProviderEvents {
+    /**
+     * 关闭JFR事件的系统属性
+     */
+    static final String JFR_PROPERTY = "jcommon.spi.jfr";
+    /**
+     * 是否可以记录JFR事件
+     */
+    static final boolean ENABLED = isAvailable();
+
+    private ProviderEvents() {
+    }
+
+    private static boolean isAvailable() {
+        if ("false".equalsIgnoreCase(System.getProperty(JFR_PROPERTY))) {
+            return false;
+        }
+        try {
+            return Jfr.FACTORIES != null;
+        } catch (LinkageError e) {
+            // 不存在jdk.jfr或定义事件失败
+            return false;
+        }
+    }
+
+    /**
+     * 开始描述加载事件, 未记录返回null
+     */
+    static Object beginDescriptorLoad() {
+        return ENABLED ? Jfr.begin(EventType.DESCRIPTOR_LOAD) : null;
+    }
+
+    static void commitDescriptorLoad(Object event, Class<?> spiType, int descriptorCount) {
+        if (event != null) {
+            Jfr.commit(event, spiType, descriptorCount);
+        }
+    }
+
+    /**
+     * 开始类加载事件, 未记录返回null
+     */
+    static Object beginClassLoad() {
+        return ENABLED ? Jfr.begin(EventType.CLASS_LOAD) : null;
+    }
+
+    static void commitClassLoad(Object event, String className) {
+        if (event != null) {
+            Jfr.commit(event, className);
+        }
+    }
+
+    /**
+     * 开始服务提供者创建事件, 包括实例化、依赖注入与@PostConstruct, 未记录返回null
+     */
+    static Object beginCreate() {
+        return ENABLED ? Jfr.begin(EventType.CREATE) : null;
+    }
+
+    static void commitCreate(Object event, Class<?> spiType, ProviderDescriptor<?> descriptor, boolean success) {
+        if (event != null) {
+            Jfr.commit(event, spiType, descriptor.getProviderClassName(), descriptor.getProviderName(), descriptor.getScope().name(), success);
+        }
+    }
+
+    /**
+     * 开始服务提供者实例化事件, 未记录返回null
+     */
+    static Object beginInstantiate() {
+        return ENABLED ? Jfr.begin(EventType.INSTANTIATE) : null;
+    }
+
+    static void commitInstantiate(Object event, Class<?> providerClass) {
+        if (event != null) {
+            Jfr.commit(event, providerClass);
+        }
+    }
+
+    /**
+     * 开始依赖注入点解析事件, 未记录返回null
+     */
+    static Object beginInjection() {
+        return ENABLED ? Jfr.begin(EventType.INJECTION) : null;
+    }
+
+    static void commitInjection(Object event, Class<?> providerClass, Object member, String resourceName, boolean found) {
+        if (event != null) {
+            Jfr.commit(event, providerClass, String.valueOf(member), resourceName, found);
+        }
+    }
+
+    /**
+     * 开始依赖注入工厂检索事件, 未记录返回null
+     */
+    static Object beginFactoryResolve() {
+        return ENABLED ? Jfr.begin(EventType.FACTORY_RESOLVE) : null;
+    }
+
+    static void commitFactoryResolve(Object event, Class<?> type, String providerName, Object factory) {
+        if (event != null) {
+            Jfr.commit(event, type, providerName, factory == null ? null : factory.getClass());
+        }
+    }
+
+    /**
+     * 开始生命周期方法执行事件, 未记录返回null
+     */
+    static Object beginLifecycle() {
+        return ENABLED ? Jfr.begin(EventType.LIFECYCLE) : null;
+    }
+
+    static void commitLifecycle(Object event, Class<?> providerClass, Object method, String phase) {
+        if (event != null) {
+            Jfr.commit(event, providerClass, String.valueOf(method), phase);
+        }
+    }
+
+    /**
+     * 事件定义, 提交时的值与字段顺序一致
+     */
+    private enum EventType {
+        DESCRIPTOR_LOAD("DescriptorLoad", "SPI Descriptor Load", "加载SPI类型的服务提供者描述, 包括配置文件扫描与注解解析或编译期索引读取",
+                field(Class.class, "spiType", "SPI Type"),
+                field(int.class, "descriptorCount", "Descriptor Count")),
+        CLASS_LOAD("ClassLoad", "SPI Provider Class Load", "延迟加载描述的服务提供者类型加载",
+                field(String.class, "className", "Class Name")),
+        CREATE("Create", "SPI Provider Create", "服务提供者创建, 包括实例化、依赖注入与@PostConstruct",
+                field(Class.class, "spiType", "SPI Type"),
+                field(String.class, "providerClass", "Provider Class"),
+                field(String.class, "providerName", "Provider Name"),
+                field(String.class, "scope", "Scope"),
+                field(boolean.class, "success", "Success")),
+        INSTANTIATE("Instantiate", "SPI Provider Instantiate", "服务提供者构造方法执行, 包括构造方法参数注入",
+                field(Class.class, "providerClass", "Provider Class")),
+        INJECTION("Injection", "SPI Injection Point", "依赖注入点解析",
+                field(Class.class, "providerClass", "Provider Class"),
+                field(String.class, "member", "Member"),
+                field(String.class, "resourceName", "Resource Name"),
+                field(boolean.class, "found", "Found")),
+        FACTORY_RESOLVE("FactoryResolve", "SPI Factory Resolve", "依赖注入工厂链检索, 记录找到依赖的工厂",
+                field(Class.class, "type", "Type"),
+                field(String.class, "providerName", "Provider Name"),
+                field(Class.class, "factory", "Factory")),
+        LIFECYCLE("Lifecycle", "SPI Lifecycle Method", "@PostConstruct/@PreDestroy方法执行",
+                field(Class.class, "providerClass", "Provider Class"),
+                field(String.class, "method", "Method"),
+                field(String.class, "phase", "Phase"));
+
+        private final String name;
+        private final String label;
+        private final String description;
+        private final Object[][] fields;
+
+        EventType(String name, String label, String description, Object[]... fields) {
+            this.name = "com.github.jcommon.spi." + name;
+            this.label = label;
+            this.description = description;
+            this.fields = fields;
+        }
+
+        /**
+         * 字段定义: 类型, 名称, 标签
+         */
+        private static Object[] field(Class<?> type, String name, String label) {
+            return new Object[]{type, name, label};
+        }
+    }
+
+    /**
+     * 反射调用jdk.jfr, 类初始化失败时不记录事件
+     */
+    private static final class Jfr {
+        private static final String CATEGORY = "SPI";
+
+        /**
+         * 事件类型 -> jdk.jfr.EventFactory
+         */
+        private static final Object[] FACTORIES;
+        /**
+         * (EventFactory)Event
+         */
+        private static final MethodHandle NEW_EVENT;
+        /**
+         * (Event)boolean
+         */
+        private static final MethodHandle IS_ENABLED;
+        /**
+         * (Event)void
+         */
+        private static final MethodHandle BEGIN;
+        /**
+         * (Event)boolean
+         */
+        private static final MethodHandle SHOULD_COMMIT;
+        /**
+         * (Event, int, Object)void
+         */
+        private static final MethodHandle SET;
+        /**
+         * (Event)void
+         */
+        private static final MethodHandle COMMIT;
+
+        static {
+            try {
+                ClassLoader classLoader = ProviderEvents.class.getClassLoader();
+                Class<?> eventClass = Class.forName("jdk.jfr.Event", false, classLoader);
+                Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory", false, classLoader);
+                Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement", false, classLoader);
+                Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor", false, classLoader);
+                Class<?> nameClass = Class.forName("jdk.jfr.Name", false, classLoader);
+                Class<?> labelClass = Class.forName("jdk.jfr.Label", false, classLoader);
+                Class<?> descriptionClass = Class.forName("jdk.jfr.Description", false, classLoader);
+                Class<?> categoryClass = Class.forName("jdk.jfr.Category", false, classLoader);
+
+                Constructor<?> annotationElement = annotationElementClass.getConstructor(Class.class, Object.class);
+                Constructor<?> valueDescriptor = valueDescriptorClass.getConstructor(Class.class, String.class, List.class);
+                java.lang.reflect.Method create = eventFactoryClass.getMethod("create", List.class, List.class);
+
+                EventType[] types = EventType.values();
+                Object[] factories = new Object[types.length];
+                for (EventType type : types) {
+                    List<Object> annotations = Arrays.asList(
+                            annotationElement.newInstance(nameClass, type.name),
+                            annotationElement.newInstance(labelClass, type.label),
+                            annotationElement.newInstance(descriptionClass, type.description),
+                            annotationElement.newInstance(categoryClass, new String[]{CATEGORY}));
+                    List<Object> fields = new ArrayList<>(type.fields.length);
+                    for (Object[] field : type.fields) {
+                        fields.add(valueDescriptor.newInstance(field[0], field[1],
+                                Collections.singletonList(annotationElement.newInstance(labelClass, field[2]))));
+                    }
+                    factories[type.ordinal()] = create.invoke(null, annotations, fields);
+                }
+
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                NEW_EVENT = lookup.findVirtual(eventFactoryClass, "newEvent", MethodType.methodType(eventClass))
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                IS_ENABLED = lookup.findVirtual(eventClass, "isEnabled", MethodType.methodType(boolean.class))
+                        .asType(MethodType.methodType(boolean.class, Object.class));
+                BEGIN = lookup.findVirtual(eventClass, "begin", MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(void.class, Object.class));
+                SHOULD_COMMIT = lookup.findVirtual(eventClass, "shouldCommit", MethodType.methodType(boolean.class))
+                        .asType(MethodType.methodType(boolean.class, Object.class));
+                SET = lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class))
+                        .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+                COMMIT = lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(void.class, Object.class));
+                FACTORIES = factories;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private static Object begin(EventType type) {
+            try {
+                Object event = (Object) NEW_EVENT.invokeExact(FACTORIES[type.ordinal()]);
+                if (!(boolean) IS_ENABLED.invokeExact(event)) {
+                    return null;
+                }
+                BEGIN.invokeExact(event);
+                return event;
+            } catch (Throwable e) {
+                // 记录事件失败不影响服务提供者
+                return null;
+            }
+        }
+
+        private static void commit(Object event, Object... values) {
+            try {
+                if ((boolean) SHOULD_COMMIT.invokeExact(event)) {
+                    for (int i = 0; i < values.length; i++) {
+                        SET.invokeExact(event, i, values[i]);
+                    }
+                    COMMIT.invokeExact(event);
+                }
+            } catch (Throwable e) {
+                // 记录事件失败不影响服务提供者
+            }
+        }
+    }
+}
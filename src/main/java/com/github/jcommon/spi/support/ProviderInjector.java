@@ -0,0 +1,534 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.collect.support.CollectionFactory;
+import com.github.jcommon.logger.Logger;
+import com.github.jcommon.logger.support.LoggerFactory;
+import com.github.jcommon.spi.Lazy;
+import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.type.TypeResolver;
+import com.github.jcommon.type.TypeResolverUtil;
+import com.github.jcommon.util.AnnotationUtil;
+import com.github.jcommon.util.ReflectUtil;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 服务提供者注入器, 每个服务提供者类型只解析一次构造方法, 依赖注入点, @PostConstruct与@PreDestroy方法并转换为MethodHandle缓存
+ * 构造方法选择: 参数配置了@Resource或{@link Lazy}的构造方法优先, 其次为无参构造方法, 不存在无参构造方法时使用唯一的public构造方法或唯一的构造方法
+ * 构造方法参数通过依赖注入工厂获取, 服务名称优先使用{@link ConstructorProperties}, 其次为编译保留的参数名称
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+final class ProviderInjector<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProviderInjector.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * 构造方法签名: (Object[])Object
+     */
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    /**
+     * 无参构造方法参数
+     */
+    private static final Object[] EMPTY_ARGS = new Object[0];
+    /**
+     * 注入方法签名: (Object, Object)void
+     */
+    private static final MethodType INJECT_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    /**
+     * 生命周期方法签名: (Object)void
+     */
+    private static final MethodType LIFECYCLE_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private final Class<? extends T> providerClass;
+    private final Function<AnnotatedElement, String> resourceNameFunction;
+    private final MethodHandle constructor;
+    private final List<InjectionPoint> constructorArguments;
+    private final List<InjectionPoint> injectionPoints;
+    private final List<LifecycleMethod> postConstructMethods;
+    private final List<LifecycleMethod> preDestroyMethods;
+
+    private ProviderInjector(Class<? extends T> providerClass, Function<AnnotatedElement, String> resourceNameFunction, MethodHandle constructor, List<InjectionPoint> constructorArguments, List<InjectionPoint> injectionPoints, List<LifecycleMethod> postConstructMethods, List<LifecycleMethod> preDestroyMethods) {
+        this.providerClass = providerClass;
+        this.resourceNameFunction = resourceNameFunction;
+        this.constructor = constructor;
+        this.constructorArguments = constructorArguments;
+        this.injectionPoints = injectionPoints;
+        this.postConstructMethods = postConstructMethods;
+        this.preDestroyMethods = preDestroyMethods;
+    }
+
+    /**
+     * 是否使用有参构造方法
+     */
+    boolean hasConstructorArguments() {
+        return !constructorArguments.isEmpty();
+    }
+
+    /**
+     * 创建实例, 构造方法参数通过依赖注入工厂获取
+     *
+     * @param dependencies 收集注入的依赖
+     */
+    @SuppressWarnings("unchecked")
+    T newInstance(ProviderFactory injectProviderFactory, Collection<Object> dependencies) {
+        Object[] args = EMPTY_ARGS;
+        if (!constructorArguments.isEmpty()) {
+            if (injectProviderFactory == null) {
+                throw new IllegalStateException("Failed instantiate: " + providerClass.getName() + " constructor arguments can not be injected");
+            }
+            args = new Object[constructorArguments.size()];
+            for (int i = 0; i < args.length; i++) {
+                InjectionPoint argument = constructorArguments.get(i);
+                args[i] = argument.resolve(providerClass, injectProviderFactory, resourceNameFunction);
+                if (!argument.lazy) {
+                    addDependency(dependencies, args[i]);
+                }
+            }
+        }
+
+        try {
+            return (T) constructor.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed instantiate: " + providerClass.getName(), e);
+        }
+    }
+
+    /**
+     * 依赖注入, 先属性后方法
+     *
+     * @param dependencies 收集注入的依赖
+     */
+    void inject(T provider, ProviderFactory injectProviderFactory, Collection<Object> dependencies) {
+        for (InjectionPoint injectionPoint : injectionPoints) {
+            Object value = injectionPoint.resolve(providerClass, injectProviderFactory, resourceNameFunction);
+            if (!injectionPoint.lazy) {
+                addDependency(dependencies, value);
+            }
+
+            // 依赖注入
+            try {
+                injectionPoint.injector.invokeExact((Object) provider, value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed inject: ", e);
+            }
+        }
+    }
+
+    /**
+     * 收集依赖, 集合注入展开为元素, 延迟注入的依赖创建时不确定, 不参与销毁顺序
+     */
+    private static void addDependency(Collection<Object> dependencies, Object value) {
+        if (value instanceof Collection) {
+            dependencies.addAll((Collection<?>) value);
+        } else if (value instanceof Map) {
+            dependencies.addAll(((Map<?, ?>) value).values());
+        } else {
+            dependencies.add(value);
+        }
+    }
+
+    /**
+     * 执行@PostConstruct
+     */
+    void initialize(T provider) {
+        for (LifecycleMethod initMethod : postConstructMethods) {
+            Object event = ProviderEvents.beginLifecycle();
+            try {
+                initMethod.handle.invokeExact((Object) provider);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed initial: ", e);
+            } finally {
+                ProviderEvents.commitLifecycle(event, providerClass, initMethod.method, "PostConstruct");
+            }
+        }
+    }
+
+    /**
+     * 是否存在@PreDestroy方法
+     */
+    boolean hasPreDestroy() {
+        return !preDestroyMethods.isEmpty();
+    }
+
+    /**
+     * 执行@PreDestroy, 单个方法失败不影响其他方法
+     */
+    void destroy(T provider) {
+        for (LifecycleMethod destroyMethod : preDestroyMethods) {
+            Object event = ProviderEvents.beginLifecycle();
+            try {
+                destroyMethod.handle.invokeExact((Object) provider);
+            } catch (Throwable e) {
+                LOGGER.error("Failed destroy: {} {}", destroyMethod.method, e.toString());
+            } finally {
+                ProviderEvents.commitLifecycle(event, providerClass, destroyMethod.method, "PreDestroy");
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderInjector{" +
+                "providerClass=" + providerClass +
+                ", injectionPoints=" + injectionPoints +
+                ", postConstructMethods=" + postConstructMethods +
+                ", preDestroyMethods=" + preDestroyMethods +
+                '}';
+    }
+
+    /**
+     * 解析服务提供者类型
+     *
+     * @param providerClass        服务提供者类型
+     * @param resourceNameFunction 依赖注入点的服务名称, 第一次注入时解析, 服务名称提取本身可能是正在创建的服务提供者
+     */
+    static <T> ProviderInjector<T> of(Class<? extends T> providerClass, Function<AnnotatedElement, String> resourceNameFunction) {
+        try {
+            Constructor<?> constructor = findConstructor(providerClass);
+            return new ProviderInjector<>(providerClass, resourceNameFunction,
+                    constructorHandle(constructor),
+                    constructorArguments(constructor),
+                    injectionPoints(providerClass),
+                    lifecycleMethods(providerClass, PostConstruct.class),
+                    lifecycleMethods(providerClass, PreDestroy.class));
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Failed resolve provider: " + providerClass.getName(), e);
+        }
+    }
+
+    /**
+     * 选择构造方法: 参数配置了@Resource或@Lazy的构造方法优先, 只能存在一个
+     * 其次为无参构造方法, 不存在无参构造方法时使用唯一的public构造方法, 或唯一的构造方法
+     */
+    private static Constructor<?> findConstructor(Class<?> providerClass) throws NoSuchMethodException {
+        Constructor<?>[] constructors = providerClass.getDeclaredConstructors();
+        Constructor<?> injectConstructor = null;
+        Constructor<?> defaultConstructor = null;
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.getParameterCount() == 0) {
+                defaultConstructor = constructor;
+            } else if (isInjectConstructor(constructor)) {
+                if (injectConstructor != null) {
+                    throw new IllegalStateException(providerClass.getName() + " has more than one @Resource constructor");
+                }
+                injectConstructor = constructor;
+            }
+        }
+        if (injectConstructor != null) {
+            return injectConstructor;
+        }
+        if (defaultConstructor != null) {
+            return defaultConstructor;
+        }
+        Constructor<?>[] publicConstructors = providerClass.getConstructors();
+        if (publicConstructors.length == 1) {
+            return publicConstructors[0];
+        }
+        if (constructors.length == 1) {
+            return constructors[0];
+        }
+        throw new NoSuchMethodException(providerClass.getName() + " has no default constructor or single public constructor");
+    }
+
+    /**
+     * 构造方法参数是否配置了@Resource或@Lazy
+     */
+    private static boolean isInjectConstructor(Constructor<?> constructor) {
+        for (Parameter parameter : constructor.getParameters()) {
+            if (AnnotationUtil.findAnnotation(parameter, Resource.class) != null || parameter.isAnnotationPresent(Lazy.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 构造方法转换为(Object[])Object
+     */
+    private static MethodHandle constructorHandle(Constructor<?> constructor) throws IllegalAccessException {
+        constructor.setAccessible(true);
+        return LOOKUP.unreflectConstructor(constructor)
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(CONSTRUCTOR_TYPE);
+    }
+
+    /**
+     * 构造方法参数注入点
+     */
+    private static List<InjectionPoint> constructorArguments(Constructor<?> constructor) {
+        if (constructor.getParameterCount() == 0) {
+            return Collections.emptyList();
+        }
+
+        ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+        Parameter[] parameters = constructor.getParameters();
+        List<InjectionPoint> arguments = new ArrayList<>(parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            InjectionPoint argument = new InjectionPoint(parameter, TypeResolverUtil.resolverActualType(parameter.getParameterizedType()), null);
+            if (properties != null && i < properties.value().length) {
+                argument.setResourceName(properties.value()[i]);
+            }
+            arguments.add(argument);
+        }
+        return arguments;
+    }
+
+    /**
+     * 属性与方法依赖注入点
+     */
+    private static List<InjectionPoint> injectionPoints(Class<?> providerClass) throws IllegalAccessException {
+        List<InjectionPoint> injectionPoints = new ArrayList<>();
+
+        // 属性依赖注入
+        List<Field> fields = ReflectUtil.findFields(providerClass, field -> field.isAnnotationPresent(Resource.class));
+        for (Field injectField : fields) {
+            if (Modifier.isFinal(injectField.getModifiers())) {
+                throw new IllegalStateException(injectField.getName() + " is final");
+            }
+            injectField.setAccessible(true);
+            injectionPoints.add(new InjectionPoint(injectField,
+                    TypeResolverUtil.resolverActualType(injectField),
+                    LOOKUP.unreflectSetter(injectField).asType(INJECT_TYPE)));
+        }
+
+        // 方法依赖注入
+        List<Method> methods = ReflectUtil.findConcreteMethods(providerClass, method -> method.getParameterCount() == 1 &&
+                AnnotationUtil.findAnnotation(method, Resource.class) != null);
+        for (Method injectMethod : methods) {
+            injectMethod.setAccessible(true);
+            injectionPoints.add(new InjectionPoint(injectMethod,
+                    TypeResolverUtil.resolverActualParamType(injectMethod),
+                    LOOKUP.unreflect(injectMethod).asType(INJECT_TYPE)));
+        }
+        return injectionPoints.isEmpty() ? Collections.emptyList() : injectionPoints;
+    }
+
+    /**
+     * 无参生命周期方法
+     */
+    private static List<LifecycleMethod> lifecycleMethods(Class<?> providerClass, Class<? extends java.lang.annotation.Annotation> annotationClass) throws IllegalAccessException {
+        List<Method> methods = ReflectUtil.findConcreteMethods(providerClass, method -> method.getParameterCount() == 0 && method.isAnnotationPresent(annotationClass));
+        if (methods == null || methods.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<LifecycleMethod> lifecycleMethods = new ArrayList<>(methods.size());
+        for (Method method : methods) {
+            method.setAccessible(true);
+            lifecycleMethods.add(new LifecycleMethod(method, LOOKUP.unreflect(method).asType(LIFECYCLE_TYPE)));
+        }
+        return lifecycleMethods;
+    }
+
+    /**
+     * 依赖注入点
+     */
+    private static final class InjectionPoint {
+        private final AnnotatedElement member;
+        private final TypeResolver reference;
+        private final MethodHandle injector;
+        /**
+         * 是否延迟注入
+         */
+        private final boolean lazy;
+        /**
+         * 延迟注入的代理接口, 非public接口或集合为null
+         */
+        private final Class<?> proxyInterface;
+        private String resourceName;
+        /**
+         * 服务名称是否已解析, 解析结果为null时同样只解析一次
+         */
+        private volatile boolean resourceNameResolved;
+
+        private InjectionPoint(AnnotatedElement member, TypeResolver reference, MethodHandle injector) {
+            this.member = member;
+            this.reference = reference;
+            this.injector = injector;
+            this.lazy = member instanceof Method ? AnnotationUtil.findAnnotation((Method) member, Lazy.class) != null : member.isAnnotationPresent(Lazy.class);
+            this.proxyInterface = this.lazy ? proxyInterface(reference) : null;
+        }
+
+        /**
+         * 延迟注入的代理接口
+         */
+        private static Class<?> proxyInterface(TypeResolver reference) {
+            if (reference == null) {
+                return null;
+            }
+            Class<?> type = reference.getContainerType() == null ? reference.getElementClass() : reference.getContainerType();
+            if (type == null || !type.isInterface() || !Modifier.isPublic(type.getModifiers()) || CollectionFactory.isSupportType(type)) {
+                // 集合由依赖注入工厂提供延迟视图
+                return null;
+            }
+            return type;
+        }
+
+        private String getResourceName(Function<AnnotatedElement, String> resourceNameFunction) {
+            if (resourceNameResolved) {
+                return resourceName;
+            }
+            String name = resourceNameFunction.apply(member);
+            this.setResourceName(name);
+            return name;
+        }
+
+        private void setResourceName(String resourceName) {
+            this.resourceName = resourceName;
+            // volatile写入在之后, 读取到已解析时服务名称可见
+            this.resourceNameResolved = true;
+        }
+
+        /**
+         * 通过工厂获取依赖实例
+         */
+        private Object resolve(Class<?> providerClass, ProviderFactory injectProviderFactory, Function<AnnotatedElement, String> resourceNameFunction) {
+            Object event = ProviderEvents.beginInjection();
+            String name = this.getResourceName(resourceNameFunction);
+            Object value = null;
+            try {
+                if (proxyInterface != null) {
+                    // 第一次调用时才通过工厂获取
+                    value = Proxy.newProxyInstance(proxyInterface.getClassLoader(), new Class<?>[]{proxyInterface},
+                            new LazyProvider(ProviderRegistry.current(), injectProviderFactory, reference, name, member));
+                } else {
+                    value = (lazy ? injectProviderFactory.getLazyProvider(reference, name) : injectProviderFactory.getProvider(reference, name)).orElse(null);
+                }
+            } finally {
+                ProviderEvents.commitInjection(event, providerClass, member, name, value != null);
+            }
+            if (value == null) {
+                throw new IllegalStateException("Failed inject: dependency resource: " + (name == null ? member : name) + " not found");
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return member + "(" + resourceName + ")";
+        }
+    }
+
+    /**
+     * 延迟注入代理, 第一次调用非Object方法时在创建时的注册表中通过依赖注入工厂获取目标, 之后直接调用
+     * 循环依赖的任意一方延迟注入后不再需要提前暴露引用
+     */
+    private static final class LazyProvider implements InvocationHandler {
+        private final ProviderRegistry registry;
+        private final ProviderFactory injectProviderFactory;
+        private final TypeResolver reference;
+        private final String name;
+        private final AnnotatedElement member;
+        private final Lock lock = new ReentrantLock();
+        private volatile Object target;
+
+        private LazyProvider(ProviderRegistry registry, ProviderFactory injectProviderFactory, TypeResolver reference, String name, AnnotatedElement member) {
+            this.registry = registry;
+            this.injectProviderFactory = injectProviderFactory;
+            this.reference = reference;
+            this.name = name;
+            this.member = member;
+        }
+
+        private Object getTarget() {
+            Object provider = target;
+            if (provider != null) {
+                return provider;
+            }
+            lock.lock();
+            try {
+                provider = target;
+                if (provider == null) {
+                    ProviderRegistry previous = registry.bind();
+                    try {
+                        provider = injectProviderFactory.getProvider(reference, name).orElse(null);
+                    } finally {
+                        registry.unbind(previous);
+                    }
+                    if (provider == null) {
+                        throw new IllegalStateException("Failed lazy inject: dependency resource: " + (name == null ? member : name) + " not found");
+                    }
+                    target = provider;
+                }
+            } finally {
+                lock.unlock();
+            }
+            return provider;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+            }
+            try {
+                return method.invoke(this.getTarget(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "LazyProvider{" +
+                    "member=" + member +
+                    ", name='" + name + '\'' +
+                    ", target=" + target +
+                    '}';
+        }
+    }
+
+    /**
+     * 生命周期方法
+     */
+    private static final class LifecycleMethod {
+        private final Method method;
+        private final MethodHandle handle;
+
+        private LifecycleMethod(Method method, MethodHandle handle) {
+            this.method = method;
+            this.handle = handle;
+        }
+
+        @Override
+        public String toString() {
+            return method.toString();
+        }
+    }
+}
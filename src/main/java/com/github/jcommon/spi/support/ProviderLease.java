@@ -0,0 +1,58 @@
+package com.github.jcommon.spi.support;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 借出的服务提供者, 使用完成后通过{@link #close()}归还
+ * 非池作用域的服务提供者归还时不做任何处理
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public final class ProviderLease<T> implements AutoCloseable {
+    private final ProviderPool<T> pool;
+    private final ProviderPool.Pooled<T> pooled;
+    private final T provider;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    ProviderLease(ProviderPool<T> pool, ProviderPool.Pooled<T> pooled) {
+        this.pool = pool;
+        this.pooled = pooled;
+        this.provider = pooled.getProvider();
+    }
+
+    ProviderLease(T provider) {
+        this.pool = null;
+        this.pooled = null;
+        this.provider = provider;
+    }
+
+    /**
+     * 获取服务提供者, 归还后不能再使用
+     */
+    public T get() {
+        if (closed.get()) {
+            throw new IllegalStateException("provider lease is closed");
+        }
+        return provider;
+    }
+
+    /**
+     * 归还服务提供者, 重复调用无效
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true) && pool != null) {
+            pool.release(pooled);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderLease{" +
+                "provider=" + provider +
+                ", closed=" + closed +
+                '}';
+    }
+}
@@ -0,0 +1,406 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.logger.Logger;
+import com.github.jcommon.logger.support.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 服务提供者生命周期管理, 统一执行@PreDestroy
+ * 只注册一个JVM关闭钩子, 按照依赖关系逆序销毁: 服务提供者在依赖它的服务提供者销毁之后才销毁, 没有依赖关系的服务提供者并行销毁
+ * 每个服务提供者的销毁时间不超过{@link #DESTROY_TIMEOUT_PROPERTY}毫秒, 超时后不再等待继续销毁其他服务提供者
+ * 线程作用域的服务提供者由后台守护线程每隔{@link #REAP_INTERVAL_PROPERTY}毫秒检查, 线程结束后在下一次检查时销毁, 关闭时先于单例并行销毁, 同样限制销毁时间
+ * 对象池的空闲实例同样在后台检查时按照空闲时间销毁, 没有借出与归还的对象池也会释放空闲实例
+ * 线程池中的线程不会结束, 其服务提供者在关闭时销毁
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+final class ProviderLifecycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProviderLifecycle.class);
+
+    /**
+     * 单个服务提供者销毁超时时间(毫秒)系统属性
+     */
+    static final String DESTROY_TIMEOUT_PROPERTY = "jcommon.spi.destroy.timeout";
+    /**
+     * 默认销毁超时时间(毫秒)
+     */
+    private static final long DEFAULT_DESTROY_TIMEOUT = 10_000L;
+    /**
+     * 后台检查间隔(毫秒)系统属性
+     */
+    static final String REAP_INTERVAL_PROPERTY = "jcommon.spi.reap.interval";
+    /**
+     * 默认后台检查间隔(毫秒)
+     */
+    private static final long DEFAULT_REAP_INTERVAL = 1_000L;
+
+    /**
+     * 已创建的服务提供者, 按照创建完成顺序
+     */
+    private final List<Node> nodes = new ArrayList<>();
+    /**
+     * 服务提供者实例 -> 节点
+     */
+    private final Map<Object, Node> nodeMap = new IdentityHashMap<>();
+    private final Lock nodesLock = new ReentrantLock();
+    /**
+     * 线程作用域的服务提供者
+     */
+    private final List<ThreadScoped> threadScopedList = new ArrayList<>();
+    private final Lock threadScopedLock = new ReentrantLock();
+    /**
+     * 池作用域的对象池, 后台检查时销毁超过空闲时间的实例
+     */
+    private final Queue<ProviderPool<?>> pools = new ConcurrentLinkedQueue<>();
+    /**
+     * 是否已注册JVM关闭钩子
+     */
+    private final AtomicBoolean shutdownHookRegistered = new AtomicBoolean();
+    /**
+     * 是否已开始后台检查
+     */
+    private final AtomicBoolean reaperScheduled = new AtomicBoolean();
+    /**
+     * 后台检查任务, 关闭时取消, 任务持有当前对象
+     */
+    private volatile ScheduledFuture<?> reaperFuture;
+    /**
+     * JVM关闭钩子, 关闭时移除
+     */
+    private volatile Thread shutdownHook;
+    private volatile boolean closed;
+
+    /**
+     * 注册已创建完成的服务提供者
+     *
+     * @param provider     服务提供者
+     * @param destroyer    执行@PreDestroy, 没有则为null
+     * @param dependencies 创建过程中注入的依赖
+     */
+    void register(Object provider, Runnable destroyer, Collection<Object> dependencies) {
+        nodesLock.lock();
+        try {
+            List<Node> dependencyNodes = new ArrayList<>(dependencies.size());
+            for (Object dependency : dependencies) {
+                Node node = nodeMap.get(dependency);
+                if (node != null) {
+                    dependencyNodes.add(node);
+                }
+            }
+            Node node = new Node(provider, destroyer, dependencyNodes);
+            nodes.add(node);
+            nodeMap.put(provider, node);
+        } finally {
+            nodesLock.unlock();
+        }
+
+        if (destroyer != null) {
+            this.registerShutdownHook();
+        }
+    }
+
+    /**
+     * 注册当前线程创建的线程作用域服务提供者, 线程结束后由后台检查销毁
+     *
+     * @param provider  服务提供者
+     * @param destroyer 执行@PreDestroy
+     */
+    void registerThreadScoped(Object provider, Runnable destroyer) {
+        threadScopedLock.lock();
+        try {
+            threadScopedList.add(new ThreadScoped(provider, destroyer));
+        } finally {
+            threadScopedLock.unlock();
+        }
+        this.registerShutdownHook();
+        this.scheduleReaper();
+    }
+
+    /**
+     * 注册对象池, 关闭时销毁对象池中的实例, 空闲实例由后台检查销毁
+     */
+    void registerPool(ProviderPool<?> pool) {
+        this.register(pool, pool::close, Collections.emptyList());
+        pools.add(pool);
+        this.scheduleReaper();
+    }
+
+    /**
+     * 开始后台检查, 每个生命周期只开始一次
+     */
+    private void scheduleReaper() {
+        if (closed || !reaperScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        long interval = Math.max(1L, Long.getLong(REAP_INTERVAL_PROPERTY, DEFAULT_REAP_INTERVAL));
+        reaperFuture = Reaper.EXECUTOR.scheduleWithFixedDelay(this::reap, interval, interval, TimeUnit.MILLISECONDS);
+        if (closed) {
+            // 开始时已并发关闭
+            this.cancelReaper();
+        }
+    }
+
+    private void cancelReaper() {
+        ScheduledFuture<?> future = reaperFuture;
+        if (future != null) {
+            reaperFuture = null;
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 后台检查, 异常不能抛出, 否则之后的检查不再执行
+     */
+    private void reap() {
+        try {
+            this.destroyExpiredThreadScoped();
+            for (ProviderPool<?> pool : pools) {
+                pool.evictIdle();
+            }
+        } catch (Throwable e) {
+            LOGGER.error("Failed reap: {}", e.toString());
+        }
+    }
+
+    /**
+     * 销毁已结束线程的线程作用域服务提供者
+     */
+    private void destroyExpiredThreadScoped() {
+        List<ThreadScoped> expiredList = new ArrayList<>();
+        threadScopedLock.lock();
+        try {
+            for (Iterator<ThreadScoped> iterator = threadScopedList.iterator(); iterator.hasNext(); ) {
+                ThreadScoped threadScoped = iterator.next();
+                if (threadScoped.isExpired()) {
+                    iterator.remove();
+                    expiredList.add(threadScoped);
+                }
+            }
+        } finally {
+            threadScopedLock.unlock();
+        }
+
+        for (ThreadScoped threadScoped : expiredList) {
+            threadScoped.destroy();
+        }
+    }
+
+    private void registerShutdownHook() {
+        if (!closed && shutdownHookRegistered.compareAndSet(false, true)) {
+            Thread hook = new Thread(this::shutdown, "spi-provider-shutdown");
+            shutdownHook = hook;
+            Runtime.getRuntime().addShutdownHook(hook);
+        }
+    }
+
+    /**
+     * 关闭生命周期管理, 移除JVM关闭钩子, 关闭钩子持有当前对象, 不移除会导致服务提供者无法回收
+     * 需要先执行{@link #shutdown()}
+     */
+    void close() {
+        closed = true;
+        this.cancelReaper();
+        Thread hook = shutdownHook;
+        if (hook != null) {
+            shutdownHook = null;
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // JVM正在退出, 关闭钩子会执行
+            }
+        }
+    }
+
+    /**
+     * 销毁所有已注册的服务提供者, 执行完成后清空注册信息
+     */
+    void shutdown() {
+        // 对象池作为单例节点关闭
+        pools.clear();
+        // 线程作用域的服务提供者只会依赖单例, 先于单例销毁
+        List<ThreadScoped> threadScopedNodes;
+        threadScopedLock.lock();
+        try {
+            threadScopedNodes = new ArrayList<>(threadScopedList);
+            threadScopedList.clear();
+        } finally {
+            threadScopedLock.unlock();
+        }
+
+        List<Node> shutdownNodes;
+        nodesLock.lock();
+        try {
+            shutdownNodes = new ArrayList<>(nodes);
+            nodes.clear();
+            nodeMap.clear();
+        } finally {
+            nodesLock.unlock();
+        }
+
+        // 依赖 -> 依赖它的服务提供者
+        Map<Node, List<Node>> dependentMap = new IdentityHashMap<>();
+        int destroyableCount = 0;
+        for (Node node : shutdownNodes) {
+            for (Node dependency : node.dependencies) {
+                dependentMap.computeIfAbsent(dependency, key -> new ArrayList<>()).add(node);
+            }
+            if (node.destroyer != null) {
+                destroyableCount++;
+            }
+        }
+        if (destroyableCount == 0 && threadScopedNodes.isEmpty()) {
+            return;
+        }
+
+        long timeout = Long.getLong(DESTROY_TIMEOUT_PROPERTY, DEFAULT_DESTROY_TIMEOUT);
+        // 不限制线程数量, 超时未结束的销毁不会占用其他服务提供者的销毁线程
+        ExecutorService executor = Executors.newCachedThreadPool(daemonThreadFactory("spi-provider-destroy-"));
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("spi-provider-destroy-timer-"));
+        try {
+            // 线程作用域并行销毁, 与单例相同限制每个销毁的时间
+            List<CompletableFuture<Void>> threadScopedFutures = new ArrayList<>(threadScopedNodes.size());
+            for (ThreadScoped threadScoped : threadScopedNodes) {
+                threadScopedFutures.add(destroy(threadScoped.provider, threadScoped.destroyer, executor, timer, timeout));
+            }
+            CompletableFuture.allOf(threadScopedFutures.toArray(new CompletableFuture[0])).join();
+
+            // 逆序构建, 依赖它的服务提供者一般在之后创建完成, 其销毁结果已构建; 循环依赖时忽略顺序
+            Map<Node, CompletableFuture<Void>> futureMap = new IdentityHashMap<>();
+            for (int i = shutdownNodes.size() - 1; i >= 0; i--) {
+                Node node = shutdownNodes.get(i);
+                List<CompletableFuture<Void>> dependentFutures = new ArrayList<>();
+                for (Node dependent : dependentMap.getOrDefault(node, Collections.emptyList())) {
+                    CompletableFuture<Void> future = futureMap.get(dependent);
+                    if (future != null) {
+                        dependentFutures.add(future);
+                    }
+                }
+                CompletableFuture<Void> dependentsDestroyed = CompletableFuture.allOf(dependentFutures.toArray(new CompletableFuture[0]));
+                futureMap.put(node, node.destroyer == null ? dependentsDestroyed : dependentsDestroyed.thenCompose(v -> destroy(node.provider, node.destroyer, executor, timer, timeout)));
+            }
+            CompletableFuture.allOf(futureMap.values().toArray(new CompletableFuture[0])).join();
+        } finally {
+            // 超时的销毁继续执行, 不中断
+            executor.shutdown();
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * 在线程池中执行销毁, 从开始执行时计算超时, 超时后结果完成但不会中断销毁
+     */
+    private static CompletableFuture<Void> destroy(Object provider, Runnable destroyer, ExecutorService executor, ScheduledExecutorService timer, long timeout) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            ScheduledFuture<?> timeoutFuture = timer.schedule(() -> {
+                if (future.complete(null)) {
+                    LOGGER.error("Failed destroy: {} timeout {}ms", provider.getClass().getName(), timeout);
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+            try {
+                destroyer.run();
+            } catch (Throwable e) {
+                LOGGER.error("Failed destroy: {} {}", provider.getClass().getName(), e.toString());
+            } finally {
+                timeoutFuture.cancel(false);
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 所有生命周期共享的后台检查线程, 第一次使用时创建
+     */
+    private static final class Reaper {
+        private static final ScheduledThreadPoolExecutor EXECUTOR;
+
+        static {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "spi-provider-reaper");
+                thread.setDaemon(true);
+                // 不持有创建线程的上下文类加载器, 已关闭注册表的类加载器可以卸载
+                thread.setContextClassLoader(null);
+                return thread;
+            });
+            // 取消的任务立即移除, 不再引用已关闭的生命周期
+            executor.setRemoveOnCancelPolicy(true);
+            EXECUTOR = executor;
+        }
+    }
+
+    /**
+     * 线程作用域的服务提供者, 弱引用创建线程
+     */
+    private static final class ThreadScoped {
+        private final WeakReference<Thread> thread = new WeakReference<>(Thread.currentThread());
+        private final Object provider;
+        private final Runnable destroyer;
+
+        private ThreadScoped(Object provider, Runnable destroyer) {
+            this.provider = provider;
+            this.destroyer = destroyer;
+        }
+
+        private boolean isExpired() {
+            Thread owner = thread.get();
+            return owner == null || !owner.isAlive();
+        }
+
+        private void destroy() {
+            try {
+                destroyer.run();
+            } catch (Throwable e) {
+                LOGGER.error("Failed destroy: {} {}", provider.getClass().getName(), e.toString());
+            }
+        }
+    }
+
+    /**
+     * 服务提供者节点
+     */
+    private static final class Node {
+        private final Object provider;
+        private final Runnable destroyer;
+        private final List<Node> dependencies;
+
+        private Node(Object provider, Runnable destroyer, List<Node> dependencies) {
+            this.provider = provider;
+            this.destroyer = destroyer;
+            this.dependencies = dependencies;
+        }
+    }
+}
@@ -6,38 +6,53 @@ import com.github.jcommon.logger.Logger;
 import com.github.jcommon.logger.support.LoggerFactory;
 import com.github.jcommon.spi.Provider;
 import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.spi.ProviderMetrics;
 import com.github.jcommon.spi.ProviderNameExtractor;
+import com.github.jcommon.spi.ProviderScope;
 import com.github.jcommon.spi.SPI;
+import com.github.jcommon.spi.index.ProviderIndex;
 import com.github.jcommon.tuple.LazyPair;
-import com.github.jcommon.type.TypeResolver;
-import com.github.jcommon.type.TypeResolverUtil;
 import com.github.jcommon.util.AnnotationUtil;
 import com.github.jcommon.util.Assert;
-import com.github.jcommon.util.IterableUtil;
 import com.github.jcommon.util.PropertiesUtil;
 import com.github.jcommon.util.ReflectUtil;
 import com.github.jcommon.util.Safes;
 import com.github.jcommon.util.StringUtil;
 
-import javax.annotation.PostConstruct;
-import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.AbstractList;
+import java.util.AbstractMap;
 import java.util.AbstractSet;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -62,16 +77,12 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
      */
     private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_]");
     /**
-     * 服务提供者管理器
+     * 当前线程创建中的非单例服务提供者, 用于检测循环依赖
      */
-    private static final Map<Class<?>, ProviderManager<?>> PROVIDER_MANAGER_MAP = new ConcurrentHashMap<>(64);
-    /**
-     * 缓存创建中的Provider
-     */
-    private static final Map<Class<?>, Object> IN_CREATING_PROVIDER_MAP = new ConcurrentHashMap<>(32);
+    private static final ThreadLocal<Set<ProviderDescriptor<?>>> IN_CREATING_SCOPED_DESCRIPTORS = ThreadLocal.withInitial(HashSet::new);
 
     /**
-     * 日志输出对象, 需要定义在PROVIDER_MANAGER_MAP之后, 否则PROVIDER_MANAGER_MAP未初始化为null
+     * 日志输出对象
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(ProviderManager.class);
 
@@ -81,20 +92,59 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
     private static final ProviderNameExtractor DEFAULT_NAME_EXTRACTOR = ProviderNameExtractor.DEFAULT;
 
     /**
-     * 当前是否存在指定的服务提供者管理器
+     * 当前注册表是否存在指定的服务提供者管理器
+     *
+     * @see ProviderRegistry#current()
      */
     public static boolean exists(Class<?> clazz) {
-        return PROVIDER_MANAGER_MAP.containsKey(clazz);
+        return ProviderRegistry.current().exists(clazz);
     }
 
     /**
-     * 获取服务提供者管理器
+     * 获取当前注册表的服务提供者管理器
+     *
+     * @see ProviderRegistry#current()
      */
-    @SuppressWarnings("unchecked")
     public static <T> ProviderManager<T> load(Class<T> clazz) {
-        return (ProviderManager<T>) PROVIDER_MANAGER_MAP.computeIfAbsent(clazz, key -> new ProviderManager<>(clazz));
+        return ProviderRegistry.current().load(clazz);
+    }
+
+    /**
+     * 预加载所有SPI类型中配置了eager的服务提供者, 使用{@link ForkJoinPool#commonPool()}创建
+     */
+    public static CompletableFuture<Void> preloadAll() {
+        return preloadAll(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 预加载当前注册表所有SPI类型中配置了eager的服务提供者
+     * SPI类型包括编译期索引中的SPI类型与已加载的服务提供者管理器, 服务提供者依赖的其他服务提供者在创建时同步获取
+     *
+     * @param executor 创建服务提供者的线程池
+     * @return 所有服务提供者创建完成的Future, 任意服务提供者创建失败则异常完成
+     */
+    public static CompletableFuture<Void> preloadAll(Executor executor) {
+        return ProviderRegistry.current().preload(executor);
+    }
+
+    /**
+     * 按照依赖关系逆序销毁全局注册表与所有已打开注册表中已创建的服务提供者并清空实例缓存, 之后获取服务提供者将重新创建
+     * 用于容器在不退出JVM的情况下关闭服务提供者, JVM退出时会自动执行; 卸载单个类加载器使用{@link ProviderRegistry#close()}
+     */
+    public static void shutdownAll() {
+        for (ProviderRegistry registry : ProviderRegistry.all()) {
+            registry.shutdown();
+        }
     }
 
+    /**
+     * 所属注册表
+     */
+    private final ProviderRegistry registry;
+    /**
+     * 所属注册表的生命周期管理
+     */
+    private final ProviderLifecycle lifecycle;
     /**
      * SPI服务类型
      */
@@ -111,54 +161,88 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
      * 如果当前依赖注入工厂未找到指定服务提供者实现是否检索其他{@link ProviderManager<ProviderFactory>#iterator()}依赖注入工厂
      */
     private final boolean lookupOther;
+    /**
+     * 是否在预加载时创建所有服务提供者
+     */
+    private final boolean eager;
     /**
      * 依赖注入工厂
      */
     private final Holder<ProviderFactory> injectProviderFactoryHolder;
+    private final Lock injectProviderFactoryLock = new ReentrantLock();
     /**
      * 服务名称提取
      */
     private final Holder<ProviderNameExtractor> nameExtractorHolder = new Holder<>();
+    private final Lock nameExtractorLock = new ReentrantLock();
+    /**
+     * 服务提供者描述, 不可变的快照, 注册时复制后发布新的快照, 遍历时不需要加锁
+     */
+    private volatile SortedSet<ProviderDescriptor<T>> descriptors;
+    /**
+     * 加载与注册服务提供者描述, 不使用synchronized, 加载过程中的类加载与IO不会固定虚拟线程的载体线程
+     */
+    private final Lock descriptorsLock = new ReentrantLock();
+    /**
+     * 服务提供者描述name索引, 同名时保留排序靠前的描述
+     */
+    private final Map<String, ProviderDescriptor<T>> nameDescriptorMap = new ConcurrentHashMap<>();
+    /**
+     * 服务提供者描述类型索引, 同类型时保留排序靠前的描述
+     */
+    private final Map<String, ProviderDescriptor<T>> classDescriptorMap = new ConcurrentHashMap<>();
     /**
-     * 服务提供者描述
+     * 多态匹配结果缓存, 包括未匹配的结果
      */
-    private final Holder<SortedSet<ProviderDescriptor<T>>> descriptorsHolder = new Holder<>();
+    private final Map<Class<?>, AssignableResolution<T>> assignableResolutionMap = new ConcurrentHashMap<>();
     /**
-     * 提供者实例Map
+     * 描述集版本, 注册新的描述时递增, 多态匹配结果版本不一致时重新匹配
      */
-    private final Map<ProviderDescriptor<T>, Holder<T>> providerHolderMap = new ConcurrentHashMap<>();
+    private volatile int descriptorsVersion;
     /**
-     * 提供者创建失败异常
+     * 服务提供者注入器
      */
-    private final Map<String, Holder<Throwable>> createProviderErrorHolderMap = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ProviderInjector<?>> injectorMap = new ConcurrentHashMap<>();
     /**
      * 服务提供者视图
      */
     private final Holder<ProviderInstanceView<T>> entrySetHolder = new Holder<>();
 
-    private ProviderManager(Class<T> providerClass) {
+    ProviderManager(Class<T> providerClass, ProviderRegistry registry) {
         Assert.notNull(providerClass, "provider class must be not null");
 
         String defaultName = null;
         Class<? extends ProviderFactory> providerFactoryClass = null;
         boolean lookupOther = false;
+        boolean eager = false;
 
         SPI spi = providerClass.getAnnotation(SPI.class);
         if (spi != null) {
             Assert.isTrue(StringUtil.isBlank(defaultName = spi.defaultName().trim()) || NAME_PATTERN.matcher(defaultName).matches(), providerClass.getName() + "@SPI defaultName is illegal");
             providerFactoryClass = ProviderFactory.class == spi.providerFactory() ? null : spi.providerFactory();
             lookupOther = spi.lookupOther();
+            eager = spi.eager();
         }
 
+        this.registry = registry;
+        this.lifecycle = registry.getLifecycle();
         this.providerClass = providerClass;
         this.defaultName = defaultName;
         this.providerFactoryClass = providerFactoryClass;
         this.lookupOther = lookupOther;
+        this.eager = eager;
 
         // ProviderFactory自身不需要依赖注入, 延迟初始化
         this.injectProviderFactoryHolder = ProviderFactory.class.isAssignableFrom(this.providerClass) ? null : new Holder<>();
     }
 
+    /**
+     * SPI服务类型
+     */
+    public Class<T> getProviderClass() {
+        return providerClass;
+    }
+
     /**
      * 是否存在指定类型的Provider实现
      */
@@ -177,23 +261,96 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
      * 注册一个类型到管理器
      */
     public ProviderManager<T> register(Class<? extends T> providerClass) {
-        if (!this.contains(providerClass)) {
-            SortedSet<ProviderDescriptor<T>> descriptors = this.getProviderDescriptors();
-            synchronized (descriptors) {
-                descriptors.add(this.buildProviderDescriptor(null, providerClass));
+        this.getProviderDescriptors();
+        descriptorsLock.lock();
+        try {
+            // 检查与发布新的快照在同一个锁中完成, 并发注册同一类型只添加一次
+            if (this.contains(providerClass)) {
+                return this;
             }
+            ProviderDescriptor<T> descriptor = this.buildProviderDescriptor(null, providerClass);
+            SortedSet<ProviderDescriptor<T>> snapshot = new TreeSet<>(descriptors);
+            if (!snapshot.add(descriptor)) {
+                // 与已存在的描述排序相同, 不会添加
+                return this;
+            }
+            // 索引需要在描述可见之前建立
+            this.indexProviderDescriptor(descriptor);
+            descriptors = Collections.unmodifiableSortedSet(snapshot);
+            // 多态匹配结果与依赖注入未找到结果失效
+            descriptorsVersion++;
+            assignableResolutionMap.clear();
+            AdaptProviderFactory.invalidate();
+        } finally {
+            descriptorsLock.unlock();
         }
         return this;
     }
 
+    /**
+     * 预加载当前SPI类型中配置了eager的服务提供者, 如果SPI配置了eager则预加载所有服务提供者
+     *
+     * @param executor 创建服务提供者的线程池
+     * @return 所有服务提供者创建完成的Future, 任意服务提供者创建失败则异常完成
+     */
+    public CompletableFuture<Void> preload(Executor executor) {
+        Assert.notNull(executor, "executor must be not null");
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (ProviderDescriptor<T> descriptor : this.getProviderDescriptors()) {
+            if ((eager || descriptor.isEager()) && descriptor.getScope() == ProviderScope.SINGLETON) {
+                futures.add(CompletableFuture.runAsync(() -> this.get(descriptor), executor));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * 清空已创建的服务提供者与创建失败异常, 以及引用服务提供者的依赖注入工厂与服务名称提取
+     */
+    void reset() {
+        if (injectProviderFactoryHolder != null) {
+            injectProviderFactoryHolder.set(null);
+        }
+        nameExtractorHolder.set(null);
+
+        SortedSet<ProviderDescriptor<T>> descriptors = this.descriptors;
+        if (descriptors == null) {
+            return;
+        }
+        for (ProviderDescriptor<T> descriptor : descriptors) {
+            ProviderSlot<T> slot = descriptor.getSlot();
+            slot.setProvider(null);
+            slot.setError(null);
+            slot.resetThreadProvider();
+            ProviderPool<T> pool = slot.getPool();
+            if (pool != null) {
+                pool.close();
+                slot.resetPool();
+            }
+        }
+    }
+
     /**
      * 获取defaultName对应服务提供者, 如果不存在defaultName则返回空Optional
      */
     public Optional<T> getDefault() {
+        Optional<T> optional = this.getDefaultProvider();
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(this.providerClass, ProviderMetrics.Lookup.DEFAULT, optional.isPresent());
+        }
+        return optional;
+    }
+
+    /**
+     * 获取defaultName对应服务提供者, 不记录查找指标, 由公开方法记录一次
+     */
+    private Optional<T> getDefaultProvider() {
         if (StringUtil.isBlank(defaultName)) {
             return Optional.empty();
         }
-        return this.get(defaultName);
+        ProviderDescriptor<T> descriptor = this.getProviderDescriptor(defaultName);
+        return descriptor == null ? Optional.empty() : Optional.ofNullable(this.get(descriptor));
     }
 
     /**
@@ -204,6 +361,9 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
 
         // 获取提供者描述
         ProviderDescriptor<T> descriptor = this.getProviderDescriptor(name);
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(this.providerClass, ProviderMetrics.Lookup.NAME, descriptor != null);
+        }
         if (descriptor == null) {
             // name没有对应的服务提供者
             return Optional.empty();
@@ -222,6 +382,9 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
 
         // 获取提供者描述
         ProviderDescriptor<T> descriptor = this.getProviderDescriptor(providerClass, false);
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(this.providerClass, ProviderMetrics.Lookup.CLASS, descriptor != null);
+        }
         if (descriptor == null) {
             // providerClass没有对应的服务提供者
             return Optional.empty();
@@ -232,6 +395,7 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
 
     /**
      * 获取指定类型的服务提供者, 先进行精准匹配获取providerClass == provider.getClass(), 如果未匹配到则尝试寻找providerClass子类型
+     * 精准匹配按照类名称查找, 只加载同名的延迟描述; 寻找子类型需要加载排序在最佳匹配之前的延迟描述的类型, 结果在注册新的描述之前缓存
      */
     public Optional<T> getAssignable(Class<? extends T> providerClass) {
         if (providerClass == null) {
@@ -244,6 +408,9 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
             // 多态匹配
             descriptor = this.getProviderDescriptor(providerClass, true);
         }
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(this.providerClass, ProviderMetrics.Lookup.ASSIGNABLE, descriptor != null);
+        }
         if (descriptor == null) {
             // 没有providerClass对应的服务提供者
             return Optional.empty();
@@ -256,12 +423,25 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
      * 获取可用的服务提供者, 首先按照defaultName寻找, 如果没有找到则优先级从高到低寻找服务提供者
      */
     public Optional<T> get() {
-        Optional<T> optional = this.getDefault();
-        if (optional.isPresent()) {
-            return optional;
+        Optional<T> optional = this.getDefaultProvider();
+        if (!optional.isPresent()) {
+            optional = this.getByPriority();
         }
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(this.providerClass, ProviderMetrics.Lookup.DEFAULT, optional.isPresent());
+        }
+        return optional;
+    }
 
+    /**
+     * 优先级从高到低寻找服务提供者
+     */
+    private Optional<T> getByPriority() {
         for (ProviderDescriptor<T> descriptor : this.getProviderDescriptors()) {
+            if (descriptor.getScope() == ProviderScope.POOLED) {
+                // 池作用域只能借出
+                continue;
+            }
             T provider = this.get(descriptor);
             if (provider != null) {
                 return Optional.of(provider);
@@ -271,54 +451,383 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
         return Optional.empty();
     }
 
-    @SuppressWarnings("unchecked")
-    private T get(ProviderDescriptor<T> descriptor) {
-        String providerName = descriptor.getProviderName();
-        Class<? extends T> providerClass = descriptor.getProviderClass();
+    /**
+     * 根据服务标识异步获取服务提供者, 使用{@link ForkJoinPool#commonPool()}创建
+     *
+     * @see #getAsync(String, Executor)
+     */
+    public CompletableFuture<T> getAsync(String name) {
+        return this.getAsync(name, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 根据服务标识异步获取服务提供者, 不存在时Future结果为null
+     * 已创建的单例直接返回已完成的Future; 同一个单例同时只有一次异步创建, 并发调用返回同一个Future, 不要取消或完成返回的Future
+     * 线程作用域与调用线程绑定, 在调用线程获取; 池作用域只能借出, Future异常完成
+     *
+     * @param executor 创建服务提供者的线程池
+     */
+    public CompletableFuture<T> getAsync(String name, Executor executor) {
+        Assert.notBlank(name, "name must be not blank");
+        Assert.notNull(executor, "executor must be not null");
+
+        ProviderDescriptor<T> descriptor = this.getProviderDescriptor(name);
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(this.providerClass, ProviderMetrics.Lookup.NAME, descriptor != null);
+        }
+        return descriptor == null ? CompletableFuture.completedFuture(null) : this.getAsync(descriptor, executor);
+    }
+
+    /**
+     * 异步获取指定类型的服务提供者, 使用{@link ForkJoinPool#commonPool()}创建
+     *
+     * @see #getAsync(Class, Executor)
+     */
+    public CompletableFuture<T> getAsync(Class<? extends T> providerClass) {
+        return this.getAsync(providerClass, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 异步获取指定类型的服务提供者, 非多态, 不存在时Future结果为null, 参考{@link #getAsync(String, Executor)}
+     *
+     * @param executor 创建服务提供者的线程池
+     */
+    public CompletableFuture<T> getAsync(Class<? extends T> providerClass, Executor executor) {
+        Assert.notNull(executor, "executor must be not null");
+        if (providerClass == null) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        // 获取缓存
-        Holder<T> holder = providerHolderMap.computeIfAbsent(descriptor, key -> new Holder<>());
-        if (holder.isPresent()) {
-            return holder.get();
+        ProviderDescriptor<T> descriptor = this.getProviderDescriptor(providerClass, false);
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(this.providerClass, ProviderMetrics.Lookup.CLASS, descriptor != null);
         }
+        return descriptor == null ? CompletableFuture.completedFuture(null) : this.getAsync(descriptor, executor);
+    }
+
+    /**
+     * 异步获取可用的服务提供者, 使用{@link ForkJoinPool#commonPool()}创建
+     *
+     * @see #getAsync(Executor)
+     */
+    public CompletableFuture<T> getAsync() {
+        return this.getAsync(ForkJoinPool.commonPool());
+    }
 
-        // 检查是否已创建失败
-        Holder<Throwable> errorHolder = createProviderErrorHolderMap.computeIfAbsent(providerName, key -> new Holder<>());
-        checkedThrowableHolder(errorHolder);
+    /**
+     * 异步获取可用的服务提供者, 首先按照defaultName寻找, 如果没有找到则使用优先级最高的非池作用域服务提供者
+     * 不存在时Future结果为null, 参考{@link #getAsync(String, Executor)}
+     *
+     * @param executor 创建服务提供者的线程池
+     */
+    public CompletableFuture<T> getAsync(Executor executor) {
+        Assert.notNull(executor, "executor must be not null");
 
-        T creating = (T) IN_CREATING_PROVIDER_MAP.get(providerClass);
-        if (creating != null) {
-            // 引用对象循环依赖
-            return creating;
+        ProviderDescriptor<T> descriptor = StringUtil.isBlank(defaultName) ? null : this.getProviderDescriptor(defaultName);
+        if (descriptor == null) {
+            for (ProviderDescriptor<T> candidate : this.getProviderDescriptors()) {
+                if (candidate.getScope() != ProviderScope.POOLED) {
+                    descriptor = candidate;
+                    break;
+                }
+            }
+        }
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordLookup(this.providerClass, ProviderMetrics.Lookup.DEFAULT, descriptor != null);
         }
+        return descriptor == null ? CompletableFuture.completedFuture(null) : this.getAsync(descriptor, executor);
+    }
 
-        if (holder.isAbsent()) {
-            synchronized (holder) {
-                if (holder.isAbsent()) {
-                    checkedThrowableHolder(errorHolder);
+    /**
+     * 按照作用域异步获取或创建服务提供者
+     */
+    private CompletableFuture<T> getAsync(ProviderDescriptor<T> descriptor, Executor executor) {
+        ProviderSlot<T> slot = descriptor.getSlot();
+        // 已创建只需要读取描述的final实例槽与一次volatile读取
+        T provider = slot.getProvider();
+        if (provider != null) {
+            this.recordCache(true);
+            return slot.getCompleted(provider);
+        }
+        if (descriptor.getScope() == ProviderScope.SINGLETON) {
+            this.recordCache(false);
+        }
+
+        switch (descriptor.getScope()) {
+            case PROTOTYPE:
+                return CompletableFuture.supplyAsync(() -> this.createScoped(descriptor), executor);
+            case POOLED:
+            case THREAD:
+                // 在调用线程获取
+                CompletableFuture<T> future = new CompletableFuture<>();
+                try {
+                    future.complete(this.getOrCreate(descriptor));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+                return future;
+            default:
+                return this.getOrCreateSingletonAsync(descriptor, executor);
+        }
+    }
+
+    /**
+     * 异步创建单例服务提供者, 并发调用共享同一个进行中的Future
+     */
+    private CompletableFuture<T> getOrCreateSingletonAsync(ProviderDescriptor<T> descriptor, Executor executor) {
+        ProviderSlot<T> slot = descriptor.getSlot();
+        while (true) {
+            CompletableFuture<T> future = slot.getAsyncCreation();
+            if (future != null) {
+                return future;
+            }
 
+            T provider = slot.getProvider();
+            if (provider != null) {
+                return slot.getCompleted(provider);
+            }
+
+            CompletableFuture<T> creation = new CompletableFuture<>();
+            if (!slot.startAsyncCreation(creation)) {
+                // 其他线程已开始异步创建
+                continue;
+            }
+            try {
+                executor.execute(() -> {
                     try {
-                        T provider = this.createProvider(descriptor);
-                        if (provider != null) {
-                            holder.set(provider);
-                        }
+                        // 与同步获取共用创建过程, 同步创建中时等待其完成
+                        creation.complete(this.getOrCreateSingleton(descriptor));
                     } catch (Throwable e) {
-                        errorHolder.set(e);
-                        checkedThrowableHolder(errorHolder);
+                        creation.completeExceptionally(e);
+                    } finally {
+                        slot.endAsyncCreation(creation);
                     }
+                });
+            } catch (RejectedExecutionException e) {
+                slot.endAsyncCreation(creation);
+                creation.completeExceptionally(e);
+            }
+            return creation;
+        }
+    }
+
+    /**
+     * 获取所有服务提供者的延迟视图, 按照优先级排序, 元素第一次访问时才创建
+     * 单例之后访问返回同一个实例, 原型与线程作用域每次访问按照作用域获取
+     * 视图为调用时服务提供者描述的快照, 不包括池作用域的服务提供者
+     */
+    public List<T> asList() {
+        return new ProviderListView<>(this);
+    }
+
+    /**
+     * 获取所有服务提供者的延迟视图, 服务标识 -> 服务提供者, 按照优先级排序, 值第一次访问时才创建
+     * 单例之后访问返回同一个实例, 原型与线程作用域每次访问按照作用域获取
+     * 视图为调用时服务提供者描述的快照, 不包括池作用域的服务提供者
+     */
+    public Map<String, T> asMap() {
+        return new ProviderMapView<>(new ProviderListView<>(this));
+    }
+
+    /**
+     * 根据服务标识借出服务提供者, 使用完成后需要关闭租约归还, 实例数量达到上限时一直等待
+     * 非池作用域的服务提供者直接返回, 关闭租约不做任何处理
+     */
+    public Optional<ProviderLease<T>> borrow(String name) {
+        return this.borrow(name, -1, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 根据服务标识借出服务提供者, 使用完成后需要关闭租约归还
+     * 非池作用域的服务提供者直接返回, 关闭租约不做任何处理
+     *
+     * @param timeout 实例数量达到上限时最长等待时间, 小于0时一直等待, 超时抛出IllegalStateException
+     */
+    public Optional<ProviderLease<T>> borrow(String name, long timeout, TimeUnit unit) {
+        Assert.notBlank(name, "name must be not blank");
+        Assert.notNull(unit, "unit must be not null");
+
+        ProviderDescriptor<T> descriptor = this.getProviderDescriptor(name);
+        if (descriptor == null) {
+            return Optional.empty();
+        }
+        if (descriptor.getScope() != ProviderScope.POOLED) {
+            return Optional.of(new ProviderLease<>(this.get(descriptor)));
+        }
+        return Optional.of(this.getProviderPool(descriptor).borrow(timeout < 0 ? -1 : unit.toNanos(timeout)));
+    }
+
+    /**
+     * 获取池作用域服务提供者的对象池, 用于获取对象池指标, 非池作用域或未借出过返回空Optional
+     */
+    public Optional<ProviderPool<T>> getPool(String name) {
+        Assert.notBlank(name, "name must be not blank");
+
+        ProviderDescriptor<T> descriptor = this.getProviderDescriptor(name);
+        if (descriptor == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(descriptor.getSlot().getPool());
+    }
+
+    /**
+     * 获取或创建对象池, 对象池随生命周期关闭
+     */
+    private ProviderPool<T> getProviderPool(ProviderDescriptor<T> descriptor) {
+        ProviderSlot<T> slot = descriptor.getSlot();
+        ProviderPool<T> pool = slot.getPool();
+        if (pool != null) {
+            return pool;
+        }
+
+        ProviderInjector<T> injector = this.getProviderInjector(descriptor.getProviderClass());
+        pool = new ProviderPool<>(descriptor.getProviderName(), descriptor.getPoolMaxSize(), descriptor.getPoolIdleTimeout(),
+                () -> this.createScoped(descriptor), injector.hasPreDestroy() ? injector::destroy : provider -> {
+        });
+        if (slot.initPool(pool)) {
+            lifecycle.registerPool(pool);
+            return pool;
+        }
+        return slot.getPool();
+    }
+
+    private T get(ProviderDescriptor<T> descriptor) {
+        // 已创建只需要读取描述的final实例槽与一次volatile读取
+        T provider = descriptor.getSlot().getProvider();
+        if (provider != null) {
+            this.recordCache(true);
+            return provider;
+        }
+        if (descriptor.getScope() == ProviderScope.SINGLETON) {
+            this.recordCache(false);
+        }
+        return this.getOrCreate(descriptor);
+    }
+
+    /**
+     * 记录实例缓存命中, 只统计单例与线程作用域, 原型与池作用域没有实例缓存
+     */
+    private void recordCache(boolean hit) {
+        if (ProviderMetricsHolder.METRICS != null) {
+            ProviderMetricsHolder.METRICS.recordCache(this.providerClass, hit);
+        }
+    }
+
+    /**
+     * 按照作用域获取或创建服务提供者
+     */
+    private T getOrCreate(ProviderDescriptor<T> descriptor) {
+        switch (descriptor.getScope()) {
+            case PROTOTYPE:
+                return this.createScoped(descriptor);
+            case POOLED:
+                throw new IllegalStateException("provider " + descriptor.getProviderName() + " is " + ProviderScope.POOLED + " scope, must be borrowed");
+            case THREAD:
+                ProviderSlot<T> slot = descriptor.getSlot();
+                T provider = slot.getThreadProvider();
+                this.recordCache(provider != null);
+                if (provider == null) {
+                    provider = this.createScoped(descriptor);
+                    slot.setThreadProvider(provider);
+                }
+                return provider;
+            default:
+                return this.getOrCreateSingleton(descriptor);
+        }
+    }
+
+    /**
+     * 创建非单例服务提供者, 创建失败不缓存异常
+     */
+    private T createScoped(ProviderDescriptor<T> descriptor) {
+        Set<ProviderDescriptor<?>> creating = IN_CREATING_SCOPED_DESCRIPTORS.get();
+        if (!creating.add(descriptor)) {
+            throw new IllegalStateException("circular reference: " + descriptor.getProviderClass().getName() + " " + descriptor.getScope() + " scope provider is in creating");
+        }
+        try {
+            return this.createProvider(descriptor, null);
+        } finally {
+            creating.remove(descriptor);
+        }
+    }
+
+    /**
+     * 创建单例服务提供者, 同一个服务提供者同时只有一个线程创建, 其他线程等待创建结果
+     * 创建失败的异常会缓存并在之后的获取中抛出
+     */
+    private T getOrCreateSingleton(ProviderDescriptor<T> descriptor) {
+        ProviderSlot<T> slot = descriptor.getSlot();
+        while (true) {
+            // 检查是否已创建失败
+            checkedThrowable(slot.getError());
+
+            T provider = slot.getProvider();
+            if (provider != null) {
+                return provider;
+            }
+
+            ProviderCreation<T> creation = slot.getCreation();
+            if (creation == null) {
+                creation = new ProviderCreation<>();
+                if (slot.startCreation(creation)) {
+                    return this.create(descriptor, slot, creation);
                 }
+                // 其他线程已开始创建
+                continue;
             }
+
+            if (creation.isOwner()) {
+                // 当前线程引用对象循环依赖
+                provider = creation.getEarly();
+                if (provider == null) {
+                    throw new IllegalStateException("circular reference: " + descriptor.getProviderClass().getName() + " constructor dependency is in creating");
+                }
+                return provider;
+            }
+
+            // 等待其他线程创建完成
+            return creation.await();
+        }
+    }
+
+    /**
+     * 当前线程创建服务提供者并发布结果, 需要已获取创建权
+     * 读取实例与获取创建权之间其他线程可能已完成创建并结束创建, 此时发布已有结果, 不再重复创建
+     */
+    T create(ProviderDescriptor<T> descriptor, ProviderSlot<T> slot, ProviderCreation<T> creation) {
+        Throwable error = slot.getError();
+        T created = slot.getProvider();
+        if (error != null || created != null) {
+            if (error != null) {
+                creation.completeExceptionally(error);
+            } else {
+                creation.complete(created);
+            }
+            slot.endCreation();
+            checkedThrowable(error);
+            return created;
         }
 
-        return holder.get();
+        try {
+            T provider = this.createProvider(descriptor, creation);
+            slot.setProvider(provider);
+            creation.complete(provider);
+            return provider;
+        } catch (Throwable e) {
+            slot.setError(e);
+            creation.completeExceptionally(e);
+            checkedThrowable(e);
+            return null;
+        } finally {
+            slot.endCreation();
+        }
     }
 
     /**
      * 检查是否存在异常
      */
-    private void checkedThrowableHolder(Holder<Throwable> errorHolder) {
-        Throwable throwable;
-        if (errorHolder == null || (throwable = errorHolder.get()) == null) {
+    private void checkedThrowable(Throwable throwable) {
+        if (throwable == null) {
             return;
         }
         if (throwable instanceof RuntimeException) {
@@ -331,9 +840,9 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
      * 获取服务提供者描述
      */
     private ProviderDescriptor<T> getProviderDescriptor(String name) {
-        return this.getProviderDescriptors().stream()
-                .filter(d -> Objects.equals(name, d.getProviderName()))
-                .findFirst().orElse(null);
+        // 确保描述及索引已加载
+        this.getProviderDescriptors();
+        return nameDescriptorMap.get(name);
     }
 
     /**
@@ -341,38 +850,110 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
      */
     private ProviderDescriptor<T> getProviderDescriptor(Class<?> providerClass, boolean containsAssignable) {
         if (!containsAssignable) {
-            return this.getProviderDescriptors().stream()
-                    .filter(d -> Objects.equals(providerClass, d.getProviderClass()))
-                    .findFirst().orElse(null);
+            // 确保描述及索引已加载
+            this.getProviderDescriptors();
+            ProviderDescriptor<T> descriptor = classDescriptorMap.get(providerClass.getName());
+            // 同名类型可能来自不同类加载器
+            return descriptor != null && descriptor.getProviderClass() == providerClass ? descriptor : null;
+        }
+
+        // 先按照类名称精准匹配, 只加载同名描述的类型
+        ProviderDescriptor<T> exact = this.getProviderDescriptor(providerClass, false);
+        if (exact != null || Modifier.isFinal(providerClass.getModifiers())) {
+            // final类型不存在子类型, 不需要加载其他延迟描述
+            return exact;
+        }
+
+        SortedSet<ProviderDescriptor<T>> descriptors = this.getProviderDescriptors();
+        // 先读取版本, 匹配过程中注册的描述会使本次结果失效
+        int version = descriptorsVersion;
+        AssignableResolution<T> resolution = assignableResolutionMap.get(providerClass);
+        if (resolution != null && resolution.version == version) {
+            return resolution.descriptor;
         }
 
-        return this.getProviderDescriptors().stream()
-                .filter(d -> providerClass.isAssignableFrom(d.getProviderClass()))
-                // providerClass是d.clazz的超类那么检索d.clazz的所有类肯定能找到providerClass
-                .min(Comparator.comparing(d -> Optional.ofNullable(ReflectUtil.getLevel(d.getProviderClass(), providerClass)).orElse(Integer.MAX_VALUE))).orElse(null);
+        // 按照排序遍历, 层级相同时保留排序靠前的描述; 延迟描述需要加载类型才能判断是否为子类型
+        // 层级1是子类型的最小层级, 匹配到之后排序靠后的描述不需要再加载
+        ProviderDescriptor<T> descriptor = null;
+        int level = Integer.MAX_VALUE;
+        for (ProviderDescriptor<T> candidate : descriptors) {
+            Class<? extends T> candidateClass = candidate.getProviderClass();
+            if (!providerClass.isAssignableFrom(candidateClass)) {
+                continue;
+            }
+            // providerClass是d.clazz的超类那么检索d.clazz的所有类肯定能找到providerClass
+            int candidateLevel = Optional.ofNullable(ReflectUtil.getLevel(candidateClass, providerClass)).orElse(Integer.MAX_VALUE);
+            if (descriptor == null || candidateLevel < level) {
+                descriptor = candidate;
+                level = candidateLevel;
+                if (level <= 1) {
+                    break;
+                }
+            }
+        }
+        assignableResolutionMap.put(providerClass, new AssignableResolution<>(version, descriptor));
+        return descriptor;
     }
 
     /**
-     * 获取服务提供者描述集
+     * 获取服务提供者描述集, 返回不可修改的快照, 之后注册的描述不会出现在已返回的快照中
      */
     public SortedSet<ProviderDescriptor<T>> getProviderDescriptors() {
-        if (descriptorsHolder.get() == null) {
-            synchronized (descriptorsHolder) {
-                if (descriptorsHolder.get() == null) {
-                    descriptorsHolder.set(this.loadProviderDescriptors());
+        SortedSet<ProviderDescriptor<T>> descriptors = this.descriptors;
+        if (descriptors != null) {
+            return descriptors;
+        }
+        descriptorsLock.lock();
+        try {
+            if (this.descriptors == null) {
+                long start = ProviderMetricsHolder.METRICS == null ? 0L : System.nanoTime();
+                Object event = ProviderEvents.beginDescriptorLoad();
+                SortedSet<ProviderDescriptor<T>> loaded = this.loadProviderDescriptors();
+                ProviderEvents.commitDescriptorLoad(event, this.providerClass, loaded.size());
+                if (ProviderMetricsHolder.METRICS != null) {
+                    ProviderMetricsHolder.METRICS.recordTime(this.providerClass, ProviderMetrics.Phase.LOAD, System.nanoTime() - start);
                 }
+                // 索引需要在描述集发布之前建立完成
+                loaded.forEach(this::indexProviderDescriptor);
+                this.descriptors = Collections.unmodifiableSortedSet(loaded);
             }
+            return this.descriptors;
+        } finally {
+            descriptorsLock.unlock();
         }
-        return descriptorsHolder.get();
+    }
+
+    /**
+     * 建立服务提供者描述索引, name或类型重复时保留排序靠前的描述, 与有序集合的检索结果保持一致
+     */
+    private void indexProviderDescriptor(ProviderDescriptor<T> descriptor) {
+        nameDescriptorMap.merge(descriptor.getProviderName(), descriptor, ProviderManager::first);
+        // 按照类全限定名称索引, 不会触发延迟描述的类加载
+        classDescriptorMap.merge(descriptor.getProviderClassName(), descriptor, ProviderManager::first);
+    }
+
+    /**
+     * 返回排序靠前的描述
+     */
+    private static <T> ProviderDescriptor<T> first(ProviderDescriptor<T> d1, ProviderDescriptor<T> d2) {
+        return d1.compareTo(d2) <= 0 ? d1 : d2;
     }
 
     /**
      * 加载当前服务类型的所有提供者描述信息, 返回可变的有序集合
+     * spi-types中列出的SPI类型只读取编译期索引, 不再扫描配置文件与解析注解; 未列出的SPI类型扫描配置文件
      */
     private SortedSet<ProviderDescriptor<T>> loadProviderDescriptors() {
         ClassLoader classLoader = getClassLoader();
 
         SortedSet<ProviderDescriptor<T>> descriptorSet = new TreeSet<>();
+        if (registry.getIndexedTypes(classLoader).contains(providerClass.getName())) {
+            for (ProviderIndex.Entry indexEntry : this.loadProviderIndex(classLoader).values()) {
+                descriptorSet.add(this.buildProviderDescriptor(classLoader, indexEntry));
+            }
+            return descriptorSet;
+        }
+
         Map<String, Iterable<List<Map.Entry<String, String>>>> propertiesMap = PropertiesUtil.readAsList(classLoader, SPI_DIRECTORY + providerClass.getName(), JDK_SPI_DIRECTORY + providerClass.getName());
         if (!propertiesMap.isEmpty()) {
             for (Iterable<List<Map.Entry<String, String>>> iterable : propertiesMap.values()) {
@@ -386,6 +967,23 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
         return descriptorSet;
     }
 
+    /**
+     * 加载编译期索引, 服务提供者全限定名称 -> 索引项, 同一个服务提供者只保留第一个索引项
+     */
+    private Map<String, ProviderIndex.Entry> loadProviderIndex(ClassLoader classLoader) {
+        Map<String, ProviderIndex.Entry> indexEntryMap = new LinkedHashMap<>();
+        Map<String, Iterable<List<Map.Entry<String, String>>>> indexMap = PropertiesUtil.readAsList(classLoader, ProviderIndex.INDEX_DIRECTORY + providerClass.getName());
+        for (Iterable<List<Map.Entry<String, String>>> iterable : Safes.of(indexMap).values()) {
+            for (List<Map.Entry<String, String>> properties : iterable) {
+                for (Map.Entry<String, String> entry : Safes.of(properties)) {
+                    ProviderIndex.Entry indexEntry = ProviderIndex.parse(entry.getKey(), entry.getValue());
+                    indexEntryMap.putIfAbsent(indexEntry.getClassName(), indexEntry);
+                }
+            }
+        }
+        return indexEntryMap;
+    }
+
     /**
      * 加载资源文件中服务提供者描述信息
      */
@@ -435,22 +1033,69 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
      * @param className   服务提供者全限定名称
      * @return
      */
-    @SuppressWarnings("unchecked")
     private ProviderDescriptor<T> buildProviderDescriptor(ClassLoader classLoader, String name, String className) {
         if (StringUtil.isBlank(className)) {
             // 当className为空代表没有配置服务提供者类型全限定名称
             className = name;
             name = CommonConstant.STRING_EMPTY;
         }
+        return this.buildProviderDescriptor(name, this.loadProviderClass(classLoader, className));
+    }
 
-        Class<? extends T> clazz;
+    /**
+     * 根据编译期索引构建提供者描述信息, 注解已在编译期解析, 服务提供者类型延迟到第一次使用时加载, 类型在创建实例时校验
+     * 服务名称与解析注解的规则一致: 注解name优先, 未配置时提取
+     */
+    @SuppressWarnings("unchecked")
+    private ProviderDescriptor<T> buildProviderDescriptor(ClassLoader classLoader, ProviderIndex.Entry entry) {
+        String name = entry.getName();
+        Assert.isTrue(StringUtil.isBlank(name) || NAME_PATTERN.matcher(name).matches(), "{} @Provider name is illegal", entry.getClassName());
+
+        Class<? extends ProviderFactory> providerFactoryClass = null;
+        if (StringUtil.isNotBlank(entry.getProviderFactoryClassName())) {
+            try {
+                providerFactoryClass = (Class<? extends ProviderFactory>) Class.forName(entry.getProviderFactoryClassName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("class " + entry.getProviderFactoryClassName() + " not found", e);
+            }
+        }
+        ProviderDescriptor<T> descriptor = ProviderDescriptor.of(entry.getClassName(), classLoader, name, entry.getPriority(), providerFactoryClass, entry.getLookupOther(), entry.isEager(), entry.getScope(), entry.getPoolMaxSize(), entry.getPoolIdleTimeout());
+        if (StringUtil.isNotBlank(name)) {
+            return descriptor;
+        }
+
+        // 未配置name
+        if (this.getNameExtractor() == DEFAULT_NAME_EXTRACTOR) {
+            // 默认规则只依赖类名称, 不需要加载类
+            String className = entry.getClassName();
+            name = ProviderNameExtractor.decapitalize(className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1));
+        } else {
+            name = this.extractServiceName(descriptor.getProviderClass());
+        }
+        return ProviderDescriptor.of(entry.getClassName(), classLoader, name, entry.getPriority(), providerFactoryClass, entry.getLookupOther(), entry.isEager(), entry.getScope(), entry.getPoolMaxSize(), entry.getPoolIdleTimeout());
+    }
+
+    /**
+     * 加载服务提供者类型, 只加载类用于解析注解, 类初始化延迟到创建实例时
+     */
+    @SuppressWarnings("unchecked")
+    private Class<? extends T> loadProviderClass(ClassLoader classLoader, String className) {
         try {
-            clazz = (Class<? extends T>) Class.forName(className, true, classLoader);
+            return (Class<? extends T>) Class.forName(className.trim(), false, classLoader);
         } catch (ClassNotFoundException e) {
             throw new IllegalArgumentException("class " + className + " not found", e);
         }
+    }
 
-        return this.buildProviderDescriptor(name, clazz);
+    /**
+     * 校验服务提供者类型: 是SPI类型的子类型, 并且不是接口或抽象类
+     */
+    private void checkProviderClass(Class<?> clazz) {
+        Assert.isTrue(providerClass.isAssignableFrom(clazz), "class {} is not subtype of {}", clazz, providerClass.getName());
+
+        int modifiers = clazz.getModifiers();
+        Assert.isTrue(!Modifier.isInterface(modifiers), "class {} is interface", clazz);
+        Assert.isTrue(!Modifier.isAbstract(modifiers), "class {} is abstract", clazz);
     }
 
     /**
@@ -461,11 +1106,7 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
      * @return
      */
     private ProviderDescriptor<T> buildProviderDescriptor(String name, Class<? extends T> clazz) {
-        Assert.isTrue(providerClass.isAssignableFrom(clazz), "class {} is not subtype of {}", clazz, providerClass.getName());
-
-        int modifiers = clazz.getModifiers();
-        Assert.isTrue(!Modifier.isInterface(modifiers), "class {} is interface", clazz);
-        Assert.isTrue(!Modifier.isAbstract(modifiers), "class {} is abstract", clazz);
+        this.checkProviderClass(clazz);
 
         // 默认优先级
         int priority = Integer.MAX_VALUE;
@@ -473,6 +1114,13 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
         Class<? extends ProviderFactory> providerFactoryClass = null;
         // 当指定的依赖注入工厂未找到时是否检索其他依赖注入工厂
         Boolean lookupOther = null;
+        // 是否在预加载时创建
+        boolean eager = false;
+        // 作用域
+        ProviderScope scope = ProviderScope.SINGLETON;
+        // 池作用域的最大实例数量与空闲时间
+        int poolMaxSize = 0;
+        long poolIdleTimeout = 0;
         Provider annotation = AnnotationUtil.findAnnotation(clazz, Provider.class);
         if (annotation != null) {
             String annName = annotation.name();
@@ -489,6 +1137,10 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
             }
             providerFactoryClass = annotation.providerFactory();
             lookupOther = annotation.searchOther();
+            eager = annotation.eager();
+            scope = annotation.scope();
+            poolMaxSize = annotation.poolMaxSize();
+            poolIdleTimeout = annotation.poolIdleTimeout();
         }
 
         if (StringUtil.isBlank(name)) {
@@ -496,52 +1148,107 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
             name = extractServiceName(clazz);
         }
 
-        return ProviderDescriptor.of(clazz, name, priority, providerFactoryClass, lookupOther);
+        return ProviderDescriptor.of(clazz, name, priority, providerFactoryClass, lookupOther, eager, scope, poolMaxSize, poolIdleTimeout);
     }
 
     /**
-     * 获取类加载器
+     * 获取类加载器, 使用所属注册表的类加载器
      */
     private ClassLoader getClassLoader() {
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        if (classLoader != null) {
-            return classLoader;
-        }
-        return this.getClass().getClassLoader();
+        return registry.getClassLoader();
     }
 
     /**
      * 根据服务标志创建服务提供者
+     *
+     * @param creation 单例的创建, 用于提前暴露引用, 其他作用域为null
      */
-    @SuppressWarnings("unchecked")
-    private T createProvider(ProviderDescriptor<T> descriptor) {
+    private T createProvider(ProviderDescriptor<T> descriptor, ProviderCreation<T> creation) {
+        // 创建过程中依赖注入工厂获取的管理器属于当前注册表
+        ProviderRegistry previous = registry.bind();
+        ProviderMetrics metrics = ProviderMetricsHolder.METRICS;
+        long start = metrics == null ? 0L : System.nanoTime();
+        Object event = ProviderEvents.beginCreate();
+        boolean success = false;
+        try {
+            T provider = this.doCreateProvider(descriptor, creation);
+            success = true;
+            if (metrics != null) {
+                metrics.recordTime(this.providerClass, ProviderMetrics.Phase.CREATE, System.nanoTime() - start);
+            }
+            return provider;
+        } catch (RuntimeException | Error e) {
+            if (metrics != null) {
+                metrics.recordCreationFailure(this.providerClass, descriptor.getProviderName(), e);
+            }
+            throw e;
+        } finally {
+            ProviderEvents.commitCreate(event, this.providerClass, descriptor, success);
+            registry.unbind(previous);
+        }
+    }
+
+    private T doCreateProvider(ProviderDescriptor<T> descriptor, ProviderCreation<T> creation) {
         Class<? extends T> providerClass = descriptor.getProviderClass();
 
-        Assert.isTrue(!Modifier.isAbstract(providerClass.getModifiers()), "class {} is abstract", providerClass.getName());
+        // 延迟加载的描述在此处校验类型
+        this.checkProviderClass(providerClass);
 
-        T provider = this.newInstance(providerClass);
-        // 放入缓存, 防止依赖注入循环引用
-        IN_CREATING_PROVIDER_MAP.put(providerClass, provider);
+        ProviderInjector<T> injector = this.getProviderInjector(providerClass);
+        // 注入的依赖, 用于按照依赖关系销毁
+        List<Object> dependencies = new ArrayList<>();
+        // 构造方法注入无法提前暴露引用, 循环依赖时抛出异常
+        Object event = ProviderEvents.beginInstantiate();
+        T provider;
         try {
-            // 依赖注入@Resource
-            injectProvider(provider, descriptor);
-            // 执行@PostConstruct
-            initializingProvider(provider);
-            // 注册执行@PreDestroy钩子
-            registerPreDestroyHook(provider);
+            provider = injector.newInstance(injector.hasConstructorArguments() ? this.getProviderFactory(descriptor) : null, dependencies);
         } finally {
-            IN_CREATING_PROVIDER_MAP.remove(providerClass);
+            ProviderEvents.commitInstantiate(event, providerClass);
+        }
+        if (creation != null) {
+            // 提前暴露引用, 防止依赖注入循环引用
+            creation.setEarly(provider);
+        }
+        // 依赖注入@Resource
+        ProviderMetrics metrics = ProviderMetricsHolder.METRICS;
+        long start = metrics == null ? 0L : System.nanoTime();
+        injectProvider(provider, descriptor, injector, dependencies);
+        if (metrics != null) {
+            long end = System.nanoTime();
+            metrics.recordTime(this.providerClass, ProviderMetrics.Phase.INJECT, end - start);
+            start = end;
+        }
+        // 执行@PostConstruct
+        injector.initialize(provider);
+        if (metrics != null) {
+            metrics.recordTime(this.providerClass, ProviderMetrics.Phase.INITIALIZE, System.nanoTime() - start);
+        }
+        // 注册执行@PreDestroy, 原型不执行, 池作用域由对象池执行
+        Runnable destroyer = injector.hasPreDestroy() ? () -> injector.destroy(provider) : null;
+        if (descriptor.getScope() == ProviderScope.SINGLETON) {
+            lifecycle.register(provider, destroyer, dependencies);
+        } else if (descriptor.getScope() == ProviderScope.THREAD && destroyer != null) {
+            lifecycle.registerThreadScoped(provider, destroyer);
         }
 
         return provider;
     }
 
     /**
-     * 创建实例
+     * 获取服务提供者注入器, 每个服务提供者类型只解析一次
      */
-    private T newInstance(Class<? extends T> providerClass) {
-        // TODO 目前只实现无参构造方法创建
-        return ReflectUtil.newInstance(providerClass);
+    @SuppressWarnings("unchecked")
+    private ProviderInjector<T> getProviderInjector(Class<? extends T> providerClass) {
+        ProviderInjector<T> injector = (ProviderInjector<T>) injectorMap.get(providerClass);
+        if (injector == null) {
+            // 不使用computeIfAbsent, 解析过程中可能重入当前管理器
+            injector = ProviderInjector.of(providerClass, this::getResourceName);
+            ProviderInjector<T> previous = (ProviderInjector<T>) injectorMap.putIfAbsent(providerClass, injector);
+            if (previous != null) {
+                injector = previous;
+            }
+        }
+        return injector;
     }
 
     /**
@@ -552,12 +1259,15 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
             return null;
         }
 
-        // 不能再构造方法直接赋值, 会出现类似: LoggerContext -> ProviderFactory -> LoggerContext, 形成PROVIDER_MANAGER_MAP.computeIfAbsent()死锁
+        // 不能再构造方法直接赋值, 会出现类似: LoggerContext -> ProviderFactory -> LoggerContext, 形成循环获取
         if (injectProviderFactoryHolder.get() == null) {
-            synchronized (injectProviderFactoryHolder) {
+            injectProviderFactoryLock.lock();
+            try {
                 if (injectProviderFactoryHolder.get() == null) {
-                    injectProviderFactoryHolder.set(AdaptProviderFactory.of(providerFactoryClass, lookupOther, null));
+                    injectProviderFactoryHolder.set(AdaptProviderFactory.of(registry, providerFactoryClass, lookupOther, null));
                 }
+            } finally {
+                injectProviderFactoryLock.unlock();
             }
         }
 
@@ -567,22 +1277,20 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
         }
 
         // 具体服务提供者指定的依赖注入工厂
-        return AdaptProviderFactory.of(descriptor.getProviderFactoryClass(), descriptor.getLookupOther(), injectProviderFactoryHolder.get());
+        return AdaptProviderFactory.of(registry, descriptor.getProviderFactoryClass(), descriptor.getLookupOther(), injectProviderFactoryHolder.get());
     }
 
     /**
      * 依赖注入
      */
-    private void injectProvider(T provider, ProviderDescriptor<T> descriptor) {
+    private void injectProvider(T provider, ProviderDescriptor<T> descriptor, ProviderInjector<T> injector, List<Object> dependencies) {
         ProviderFactory injectProviderFactory;
         if (provider == null || (injectProviderFactory = getProviderFactory(descriptor)) == null) {
             return;
         }
 
-        // 属性依赖注入
-        injectProviderByField(provider, injectProviderFactory, descriptor.getProviderClass());
-        // 方法依赖注入
-        injectProviderByMethod(provider, injectProviderFactory, descriptor.getProviderClass());
+        // 属性依赖注入, 方法依赖注入
+        injector.inject(provider, injectProviderFactory, dependencies);
     }
 
     /**
@@ -599,17 +1307,27 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
     }
 
     /**
-     * 提取服务名称
+     * 获取服务名称提取
      */
-    private String extractServiceName(AnnotatedElement type) {
+    private ProviderNameExtractor getNameExtractor() {
         if (nameExtractorHolder.get() == null) {
-            synchronized (nameExtractorHolder) {
+            nameExtractorLock.lock();
+            try {
                 if (nameExtractorHolder.get() == null) {
-                    nameExtractorHolder.set(ProviderManager.load(ProviderNameExtractor.class).get().orElse(DEFAULT_NAME_EXTRACTOR));
+                    nameExtractorHolder.set(registry.load(ProviderNameExtractor.class).get().orElse(DEFAULT_NAME_EXTRACTOR));
                 }
+            } finally {
+                nameExtractorLock.unlock();
             }
         }
-        ProviderNameExtractor extractor = nameExtractorHolder.get();
+        return nameExtractorHolder.get();
+    }
+
+    /**
+     * 提取服务名称
+     */
+    private String extractServiceName(AnnotatedElement type) {
+        ProviderNameExtractor extractor = this.getNameExtractor();
         if (type instanceof Class) {
             return extractor.extract((Class<?>) type);
         }
@@ -619,124 +1337,176 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
         if (type instanceof Method) {
             return extractor.extract((Method) type);
         }
+        if (type instanceof Parameter) {
+            return extractor.extract((Parameter) type);
+        }
         return null;
     }
 
     /**
-     * 属性依赖注入
+     * 多态匹配结果
      */
-    private void injectProviderByField(T provider, ProviderFactory injectProviderFactory, Class<?> providerClass) {
-        List<Field> fields = ReflectUtil.findFields(providerClass, field -> field.isAnnotationPresent(Resource.class));
-
-        for (Field injectField : fields) {
-            if (Modifier.isFinal(injectField.getModifiers())) {
-                throw new IllegalStateException(injectField.getName() + " is final");
-            }
-
-            TypeResolver reference = TypeResolverUtil.resolverActualType(injectField);
-            String resourceName = this.getResourceName(injectField);
-
-            // 通过工厂获取实例
-            Object value = injectProviderFactory.getProvider(reference, resourceName).orElse(null);
-            if (value == null) {
-                throw new IllegalStateException("Failed inject: dependency resource: " + resourceName + " not found");
-            }
-
-            // 依赖注入
-            try {
-                ReflectUtil.setValue(provider, injectField, value);
-            } catch (Exception e) {
-                throw new IllegalStateException("Failed inject: ", e);
-            }
+    private static final class AssignableResolution<T> {
+        private final int version;
+        /**
+         * 未匹配时为null
+         */
+        private final ProviderDescriptor<T> descriptor;
+
+        private AssignableResolution(int version, ProviderDescriptor<T> descriptor) {
+            this.version = version;
+            this.descriptor = descriptor;
         }
     }
 
     /**
-     * 方法依赖注入
+     * 服务提供者管理器当前实例的视图
      */
-    private void injectProviderByMethod(T provider, ProviderFactory injectProviderFactory, Class<?> providerClass) {
-        List<Method> methods = ReflectUtil.findConcreteMethods(providerClass, method -> method.getParameterCount() == 1 &&
-                AnnotationUtil.findAnnotation(method, Resource.class) != null);
+    private static class ProviderInstanceView<T> extends AbstractSet<Map.Entry<String, T>> {
+        private final ProviderManager<T> providerManager;
 
-        for (Method injectMethod : methods) {
-            TypeResolver reference = TypeResolverUtil.resolverActualParamType(injectMethod);
-            String resourceName = this.getResourceName(injectMethod);
+        private ProviderInstanceView(ProviderManager<T> providerManager) {
+            this.providerManager = providerManager;
+        }
 
-            // 通过工厂获取实例
-            Object value = injectProviderFactory.getProvider(reference, resourceName).orElse(null);
-            if (value == null) {
-                throw new IllegalStateException("Failed inject: dependency resource: " + resourceName + " not found");
+        @Override
+        public int size() {
+            int size = 0;
+            for (ProviderDescriptor<T> descriptor : providerManager.getProviderDescriptors()) {
+                if (descriptor.getSlot().getProvider() != null) {
+                    size++;
+                }
             }
+            return size;
+        }
 
-            // 依赖注入
-            try {
-                ReflectUtil.invoke(provider, injectMethod, value);
-            } catch (Exception e) {
-                throw new IllegalStateException("Failed inject: ", e);
+        @Override
+        public Iterator<Map.Entry<String, T>> iterator() {
+            List<Map.Entry<String, T>> entries = new ArrayList<>();
+            for (ProviderDescriptor<T> descriptor : providerManager.getProviderDescriptors()) {
+                ProviderSlot<T> slot = descriptor.getSlot();
+                if (slot.getProvider() != null) {
+                    entries.add(LazyPair.of(descriptor.getProviderName(), slot::getProvider));
+                }
             }
+            return entries.iterator();
         }
     }
 
     /**
-     * 初始化
+     * 服务提供者延迟列表视图
      */
-    private void initializingProvider(T provider) {
-        if (provider == null) {
-            return;
+    private static final class ProviderListView<T> extends AbstractList<T> implements RandomAccess {
+        private final ProviderManager<T> providerManager;
+        private final List<ProviderDescriptor<T>> descriptors;
+        /**
+         * 已获取的单例服务提供者, 未获取或非单例作用域为null
+         */
+        private final AtomicReferenceArray<T> providers;
+
+        private ProviderListView(ProviderManager<T> providerManager) {
+            List<ProviderDescriptor<T>> descriptors = new ArrayList<>();
+            for (ProviderDescriptor<T> descriptor : providerManager.getProviderDescriptors()) {
+                if (descriptor.getScope() != ProviderScope.POOLED) {
+                    descriptors.add(descriptor);
+                }
+            }
+            this.providerManager = providerManager;
+            this.descriptors = descriptors;
+            this.providers = new AtomicReferenceArray<>(descriptors.size());
         }
 
-        List<Method> methods = ReflectUtil.findConcreteMethods(provider.getClass(), method -> method.getParameterCount() == 0 && method.isAnnotationPresent(PostConstruct.class));
-        for (Method initMethod : methods) {
-            try {
-                ReflectUtil.invoke(provider, initMethod);
-            } catch (Exception e) {
-                throw new IllegalStateException("Failed initial: ", e);
+        @Override
+        public T get(int index) {
+            ProviderDescriptor<T> descriptor = descriptors.get(index);
+            if (descriptor.getScope() != ProviderScope.SINGLETON) {
+                // 线程作用域不能跨线程共享, 原型每次创建, 不缓存
+                return providerManager.get(descriptor);
             }
+            T provider = providers.get(index);
+            if (provider != null) {
+                return provider;
+            }
+            provider = providerManager.get(descriptor);
+            if (provider != null) {
+                providers.lazySet(index, provider);
+            }
+            return provider;
+        }
+
+        @Override
+        public int size() {
+            return descriptors.size();
         }
     }
 
     /**
-     * 注册销毁钩子
+     * 服务提供者延迟Map视图
      */
-    private void registerPreDestroyHook(T provider) {
-        if (provider == null) {
-            return;
-        }
+    private static final class ProviderMapView<T> extends AbstractMap<String, T> {
+        private final ProviderListView<T> providers;
+        /**
+         * 服务标识 -> 列表视图下标
+         */
+        private final Map<String, Integer> indexMap;
+        private final Set<Map.Entry<String, T>> entrySet;
+
+        private ProviderMapView(ProviderListView<T> providers) {
+            List<ProviderDescriptor<T>> descriptors = providers.descriptors;
+            Map<String, Integer> indexMap = new HashMap<>(descriptors.size() * 2);
+            for (int i = 0; i < descriptors.size(); i++) {
+                indexMap.put(descriptors.get(i).getProviderName(), i);
+            }
+            this.providers = providers;
+            this.indexMap = indexMap;
+            this.entrySet = new AbstractSet<Map.Entry<String, T>>() {
+                @Override
+                public Iterator<Map.Entry<String, T>> iterator() {
+                    return new Iterator<Map.Entry<String, T>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < descriptors.size();
+                        }
 
-        List<Method> methods = ReflectUtil.findConcreteMethods(provider.getClass(), method -> method.getParameterCount() == 0 && method.isAnnotationPresent(PreDestroy.class));
-        if (Safes.isEmpty(methods)) {
-            return;
-        }
+                        @Override
+                        public Map.Entry<String, T> next() {
+                            if (!this.hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = index++;
+                            return LazyPair.of(descriptors.get(i).getProviderName(), () -> providers.get(i));
+                        }
+                    };
+                }
 
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            for (Method initMethod : methods) {
-                try {
-                    ReflectUtil.invoke(provider, initMethod);
-                } catch (Exception e) {
-                    LOGGER.error("Failed destroy: {} {}", initMethod, e.toString());
+                @Override
+                public int size() {
+                    return descriptors.size();
                 }
-            }
-        }));
-    }
+            };
+        }
 
-    /**
-     * 服务提供者管理器当前实例的视图
-     */
-    private static class ProviderInstanceView<T> extends AbstractSet<Map.Entry<String, T>> {
-        private final ProviderManager<T> providerManager;
+        @Override
+        public T get(Object key) {
+            Integer index = indexMap.get(key);
+            return index == null ? null : providers.get(index);
+        }
 
-        private ProviderInstanceView(ProviderManager<T> providerManager) {
-            this.providerManager = providerManager;
+        @Override
+        public boolean containsKey(Object key) {
+            return indexMap.containsKey(key);
         }
 
         @Override
         public int size() {
-            return providerManager.providerHolderMap.size();
+            return indexMap.size();
         }
 
         @Override
-        public Iterator<Map.Entry<String, T>> iterator() {
-            return IterableUtil.transform(providerManager.providerHolderMap.entrySet().iterator(), entry -> LazyPair.of(entry.getKey().getProviderName(), entry.getValue()::get));
+        public Set<Map.Entry<String, T>> entrySet() {
+            return entrySet;
         }
     }
 
@@ -786,10 +1556,9 @@ public final class ProviderManager<T> implements Iterable<Map.Entry<ProviderDesc
                 ", defaultName='" + defaultName + '\'' +
                 ", providerFactoryClass=" + providerFactoryClass +
                 ", lookupOther=" + lookupOther +
+                ", eager=" + eager +
                 ", injectProviderFactoryHolder=" + injectProviderFactoryHolder +
-                ", descriptorsHolder=" + descriptorsHolder +
-                ", providerHolderMap=" + providerHolderMap +
-                ", createProviderErrorHolderMap=" + createProviderErrorHolderMap +
+                ", descriptors=" + descriptors +
                 ", entrySetHolder=" + entrySetHolder +
                 '}';
     }
@@ -0,0 +1,47 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.logger.Logger;
+import com.github.jcommon.logger.support.LoggerFactory;
+import com.github.jcommon.spi.ProviderMetrics;
+import com.github.jcommon.spi.internals.JmxProviderMetrics;
+import com.github.jcommon.util.StringUtil;
+
+/**
+ * 指标收集持有者, 未启用时为null, 调用方只需要检查静态常量
+ * 不通过{@link ProviderManager}加载, 避免指标收集依赖自身
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+final class ProviderMetricsHolder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProviderMetricsHolder.class);
+
+    /**
+     * 指标收集, 未启用时为null
+     */
+    static final ProviderMetrics METRICS = create();
+
+    private ProviderMetricsHolder() {
+    }
+
+    private static ProviderMetrics create() {
+        String value = System.getProperty(ProviderMetrics.PROPERTY);
+        if (StringUtil.isBlank(value) || "false".equalsIgnoreCase(value.trim())) {
+            return null;
+        }
+        value = value.trim();
+        if (ProviderMetrics.JMX.equalsIgnoreCase(value) || "true".equalsIgnoreCase(value)) {
+            return new JmxProviderMetrics();
+        }
+
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            Class<?> clazz = Class.forName(value, true, classLoader == null ? ProviderMetricsHolder.class.getClassLoader() : classLoader);
+            return (ProviderMetrics) clazz.getDeclaredConstructor().newInstance();
+        } catch (Exception | LinkageError e) {
+            LOGGER.error("create provider metrics {} failed, metrics disabled {}", value, e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.logger.Logger;
+import com.github.jcommon.logger.support.LoggerFactory;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 池作用域服务提供者的有界无锁对象池
+ * 空闲实例按照后进先出复用, 超过空闲时间的实例在借出、归还或生命周期后台检查时销毁, 实例进入对象池前执行@PostConstruct, 离开对象池时执行@PreDestroy
+ * 实例数量达到上限时借出线程退避等待
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public final class ProviderPool<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProviderPool.class);
+
+    /**
+     * 等待退避最小时间(纳秒)
+     */
+    private static final long MIN_BACKOFF_NANOS = 1_000L;
+    /**
+     * 等待退避最大时间(纳秒)
+     */
+    private static final long MAX_BACKOFF_NANOS = 1_000_000L;
+
+    private final String providerName;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final Supplier<T> creator;
+    private final Consumer<T> destroyer;
+
+    /**
+     * 空闲实例, 头部为最近归还
+     */
+    private final ConcurrentLinkedDeque<Pooled<T>> idleDeque = new ConcurrentLinkedDeque<>();
+    /**
+     * 当前实例数量, 包括空闲与借出
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * 当前空闲实例数量
+     */
+    private final AtomicInteger idleSize = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder createCount = new LongAdder();
+    private final LongAdder destroyCount = new LongAdder();
+    private volatile boolean closed;
+
+    ProviderPool(String providerName, int maxSize, long idleTimeoutMillis, Supplier<T> creator, Consumer<T> destroyer) {
+        this.providerName = providerName;
+        this.maxSize = Math.max(1, maxSize);
+        this.idleTimeoutNanos = idleTimeoutMillis <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.creator = creator;
+        this.destroyer = destroyer;
+    }
+
+    /**
+     * 借出实例
+     *
+     * @param timeoutNanos 实例数量达到上限时最长等待时间, 小于0时一直等待
+     */
+    ProviderLease<T> borrow(long timeoutNanos) {
+        if (closed) {
+            throw new IllegalStateException("provider pool " + providerName + " is closed");
+        }
+        borrowCount.increment();
+        this.evictIdle();
+
+        long start = 0;
+        long backoff = MIN_BACKOFF_NANOS;
+        while (true) {
+            Pooled<T> pooled = idleDeque.pollFirst();
+            if (pooled != null) {
+                idleSize.decrementAndGet();
+                this.recordWait(start);
+                return new ProviderLease<>(this, pooled);
+            }
+
+            int current = size.get();
+            if (current < maxSize) {
+                if (size.compareAndSet(current, current + 1)) {
+                    this.recordWait(start);
+                    return new ProviderLease<>(this, new Pooled<>(this.create()));
+                }
+                continue;
+            }
+
+            // 达到上限, 退避等待归还
+            long now = System.nanoTime();
+            if (start == 0) {
+                start = now;
+                waitCount.increment();
+            } else if (timeoutNanos >= 0 && now - start >= timeoutNanos) {
+                this.recordWait(start);
+                throw new IllegalStateException("borrow provider " + providerName + " timeout, pool max size " + maxSize);
+            }
+            if (closed) {
+                throw new IllegalStateException("provider pool " + providerName + " is closed");
+            }
+            LockSupport.parkNanos(this, backoff);
+            backoff = Math.min(backoff << 1, MAX_BACKOFF_NANOS);
+        }
+    }
+
+    /**
+     * 归还实例
+     */
+    void release(Pooled<T> pooled) {
+        if (closed) {
+            this.destroy(pooled);
+            return;
+        }
+        pooled.lastReleaseNanos = System.nanoTime();
+        idleDeque.offerFirst(pooled);
+        idleSize.incrementAndGet();
+        if (closed) {
+            // 检查之后放入之前对象池已关闭并清空, 由归还线程销毁, 每个实例只会被取出一次
+            this.destroyIdle();
+            return;
+        }
+        this.evictIdle();
+    }
+
+    /**
+     * 关闭对象池, 销毁所有空闲实例, 借出的实例在归还时销毁
+     */
+    void close() {
+        closed = true;
+        this.destroyIdle();
+    }
+
+    /**
+     * 销毁所有空闲实例
+     */
+    private void destroyIdle() {
+        Pooled<T> pooled;
+        while ((pooled = idleDeque.pollFirst()) != null) {
+            idleSize.decrementAndGet();
+            this.destroy(pooled);
+        }
+    }
+
+    private T create() {
+        try {
+            T provider = creator.get();
+            createCount.increment();
+            return provider;
+        } catch (RuntimeException | Error e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void destroy(Pooled<T> pooled) {
+        size.decrementAndGet();
+        destroyCount.increment();
+        try {
+            destroyer.accept(pooled.provider);
+        } catch (Throwable e) {
+            LOGGER.error("Failed destroy: {} {}", providerName, e.toString());
+        }
+    }
+
+    /**
+     * 销毁超过空闲时间的实例, 从最早归还的尾部检查
+     * 检查与移除之间实例可能被借出并重新归还, 移除之后再次检查空闲时间, 不再空闲的实例放回头部
+     */
+    void evictIdle() {
+        if (idleTimeoutNanos == 0 || closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        Pooled<T> pooled;
+        while ((pooled = idleDeque.peekLast()) != null && now - pooled.lastReleaseNanos > idleTimeoutNanos) {
+            if (!idleDeque.removeLastOccurrence(pooled)) {
+                continue;
+            }
+            if (now - pooled.lastReleaseNanos > idleTimeoutNanos) {
+                idleSize.decrementAndGet();
+                this.destroy(pooled);
+                continue;
+            }
+            // 已重新归还, 与归还相同放回头部
+            idleDeque.offerFirst(pooled);
+            if (closed) {
+                // 放回之前对象池已关闭并清空, 由当前线程销毁
+                this.destroyIdle();
+                return;
+            }
+        }
+    }
+
+    private void recordWait(long start) {
+        if (start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        waitNanos.add(nanos);
+        long max;
+        while (nanos > (max = maxWaitNanos.get()) && !maxWaitNanos.compareAndSet(max, nanos)) {
+            // 重试更新最大等待时间
+        }
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    /**
+     * 最大实例数量
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 当前实例数量
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * 当前空闲实例数量
+     */
+    public int getIdleSize() {
+        return idleSize.get();
+    }
+
+    /**
+     * 当前借出实例数量
+     */
+    public int getBorrowedSize() {
+        return Math.max(0, size.get() - idleSize.get());
+    }
+
+    /**
+     * 使用率, 借出实例数量 / 最大实例数量
+     */
+    public double getUtilization() {
+        return (double) this.getBorrowedSize() / maxSize;
+    }
+
+    /**
+     * 累计借出次数
+     */
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    /**
+     * 累计需要等待的借出次数
+     */
+    public long getWaitCount() {
+        return waitCount.sum();
+    }
+
+    /**
+     * 累计等待时间(纳秒)
+     */
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * 最大等待时间(纳秒)
+     */
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    /**
+     * 累计创建实例数量
+     */
+    public long getCreateCount() {
+        return createCount.sum();
+    }
+
+    /**
+     * 累计销毁实例数量
+     */
+    public long getDestroyCount() {
+        return destroyCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderPool{" +
+                "providerName='" + providerName + '\'' +
+                ", maxSize=" + maxSize +
+                ", size=" + this.getSize() +
+                ", idleSize=" + this.getIdleSize() +
+                ", borrowCount=" + this.getBorrowCount() +
+                ", waitCount=" + this.getWaitCount() +
+                ", closed=" + closed +
+                '}';
+    }
+
+    /**
+     * 池中实例
+     */
+    static final class Pooled<T> {
+        private final T provider;
+        private volatile long lastReleaseNanos;
+
+        private Pooled(T provider) {
+            this.provider = provider;
+        }
+
+        T getProvider() {
+            return provider;
+        }
+    }
+}
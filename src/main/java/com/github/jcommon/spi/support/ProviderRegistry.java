@@ -0,0 +1,321 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.logger.Logger;
+import com.github.jcommon.logger.support.LoggerFactory;
+import com.github.jcommon.spi.ProviderFactory;
+import com.github.jcommon.spi.index.ProviderIndex;
+import com.github.jcommon.util.Assert;
+import com.github.jcommon.util.PropertiesUtil;
+import com.github.jcommon.util.Safes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 服务提供者注册表, 按照类加载器隔离服务提供者管理器与服务提供者生命周期
+ * 全局注册表使用线程上下文类加载器加载服务提供者, 在JVM退出时销毁服务提供者
+ * 插件或web应用通过{@link #open(ClassLoader)}打开自己类加载器的注册表, 线程上下文类加载器为该类加载器或其子类加载器时{@link ProviderManager#load(Class)}使用该注册表
+ * 卸载时调用{@link #close()}一次销毁注册表中的所有服务提供者, 并释放对类加载器、服务提供者的引用
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public final class ProviderRegistry implements AutoCloseable {
+    /**
+     * 已打开的注册表, 关闭时移除
+     */
+    private static final Map<ClassLoader, ProviderRegistry> REGISTRY_MAP = new ConcurrentHashMap<>();
+    /**
+     * 当前线程正在创建服务提供者的注册表, 服务提供者创建过程中获取的管理器与创建者属于同一注册表
+     */
+    private static final ThreadLocal<ProviderRegistry> CURRENT_REGISTRY = new ThreadLocal<>();
+    /**
+     * 全局注册表, 需要定义在REGISTRY_MAP之后
+     */
+    private static final ProviderRegistry GLOBAL = new ProviderRegistry(null);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProviderRegistry.class);
+
+    /**
+     * 获取全局注册表
+     */
+    public static ProviderRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 打开类加载器对应的注册表, 已打开则返回已存在的注册表
+     */
+    public static ProviderRegistry open(ClassLoader classLoader) {
+        Assert.notNull(classLoader, "class loader must be not null");
+        return REGISTRY_MAP.computeIfAbsent(classLoader, ProviderRegistry::new);
+    }
+
+    /**
+     * 获取当前注册表
+     * 1, 当前线程正在创建服务提供者, 使用创建者所属的注册表
+     * 2, 线程上下文类加载器或其父类加载器已打开注册表, 使用最近的注册表
+     * 3, 使用全局注册表
+     */
+    public static ProviderRegistry current() {
+        if (REGISTRY_MAP.isEmpty()) {
+            // 未打开任何注册表
+            return GLOBAL;
+        }
+        ProviderRegistry registry = CURRENT_REGISTRY.get();
+        if (registry != null) {
+            return registry;
+        }
+        for (ClassLoader classLoader = Thread.currentThread().getContextClassLoader(); classLoader != null; classLoader = classLoader.getParent()) {
+            registry = REGISTRY_MAP.get(classLoader);
+            if (registry != null) {
+                return registry;
+            }
+        }
+        return GLOBAL;
+    }
+
+    /**
+     * 获取全局注册表与所有已打开的注册表
+     */
+    static List<ProviderRegistry> all() {
+        List<ProviderRegistry> registries = new ArrayList<>(REGISTRY_MAP.size() + 1);
+        registries.add(GLOBAL);
+        registries.addAll(REGISTRY_MAP.values());
+        return registries;
+    }
+
+    /**
+     * 注册表的类加载器, 全局注册表为null, 关闭后为null
+     */
+    private volatile ClassLoader classLoader;
+    /**
+     * SPI类型 -> 服务提供者管理器槽, 获取管理器只需要读取ClassValue与一次volatile读取, 不存在锁竞争
+     * 管理器通过CAS设置到槽中, 构建一个SPI类型的管理器时不会阻塞其他SPI类型管理器的构建, 也不会因为重入死锁
+     */
+    private final ClassValue<AtomicReference<ProviderManager<?>>> managerSlots = new ClassValue<AtomicReference<ProviderManager<?>>>() {
+        @Override
+        protected AtomicReference<ProviderManager<?>> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+    /**
+     * 已创建的服务提供者管理器, 用于预加载与销毁
+     */
+    private final Queue<ProviderManager<?>> managers = new ConcurrentLinkedQueue<>();
+    /**
+     * 依赖注入工厂链, 键由{@link AdaptProviderFactory}定义
+     */
+    private final Map<Object, ProviderFactory> adaptProviderFactoryMap = new ConcurrentHashMap<>();
+    /**
+     * 类加载器 -> 生成了编译期索引的SPI类型, 每个类加载器只扫描一次, 全局注册表的类加载器为线程上下文类加载器
+     */
+    private final Map<ClassLoader, Set<String>> indexedTypesMap = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * 服务提供者生命周期管理
+     */
+    private final ProviderLifecycle lifecycle = new ProviderLifecycle();
+    private volatile boolean closed;
+
+    private ProviderRegistry(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 当前注册表是否存在指定的服务提供者管理器
+     */
+    public boolean exists(Class<?> clazz) {
+        return clazz != null && managerSlots.get(clazz).get() != null;
+    }
+
+    /**
+     * 获取当前注册表的服务提供者管理器
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ProviderManager<T> load(Class<T> clazz) {
+        AtomicReference<ProviderManager<?>> slot = managerSlots.get(clazz);
+        ProviderManager<T> providerManager = (ProviderManager<T>) slot.get();
+        if (providerManager != null) {
+            return providerManager;
+        }
+
+        if (closed) {
+            throw new IllegalStateException("provider registry " + this + " is closed");
+        }
+        // 构造方法只解析@SPI, 不持有锁, 并发构建时只有一个管理器设置成功
+        providerManager = new ProviderManager<>(clazz, this);
+        if (slot.compareAndSet(null, providerManager)) {
+            managers.add(providerManager);
+            return providerManager;
+        }
+        return (ProviderManager<T>) slot.get();
+    }
+
+    /**
+     * 预加载编译期索引中的SPI类型与已加载的服务提供者管理器中配置了eager的服务提供者
+     *
+     * @param executor 创建服务提供者的线程池
+     * @return 所有服务提供者创建完成的Future, 任意服务提供者创建失败则异常完成
+     */
+    public CompletableFuture<Void> preload(Executor executor) {
+        Assert.notNull(executor, "executor must be not null");
+
+        ClassLoader classLoader = this.getClassLoader();
+        // 加载编译期索引中的SPI类型
+        for (String spiType : this.getIndexedTypes(classLoader)) {
+            try {
+                this.load(Class.forName(spiType, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                LOGGER.error("preload spi type {} not found", spiType);
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (ProviderManager<?> providerManager : new ArrayList<>(managers)) {
+            futures.add(providerManager.preload(executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * 按照依赖关系逆序销毁注册表中已创建的服务提供者并清空实例缓存, 之后获取服务提供者将重新创建
+     */
+    public void shutdown() {
+        lifecycle.shutdown();
+        for (ProviderManager<?> providerManager : managers) {
+            providerManager.reset();
+        }
+        // 工厂链与检索结果引用已销毁的服务提供者
+        adaptProviderFactoryMap.clear();
+        AdaptProviderFactory.invalidate();
+    }
+
+    /**
+     * 关闭注册表, 销毁所有服务提供者, 移除JVM关闭钩子并释放对类加载器的引用, 关闭后不能再获取服务提供者管理器
+     * 全局注册表不能关闭, 重复关闭无效
+     */
+    @Override
+    public void close() {
+        if (this == GLOBAL) {
+            throw new IllegalStateException("global provider registry can not be closed");
+        }
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        ClassLoader classLoader = this.classLoader;
+        if (classLoader != null) {
+            REGISTRY_MAP.remove(classLoader, this);
+        }
+        this.shutdown();
+        lifecycle.close();
+        // 释放SPI类型上ClassValue引用的管理器, SPI类型可能由父类加载器加载
+        ProviderManager<?> providerManager;
+        while ((providerManager = managers.poll()) != null) {
+            managerSlots.get(providerManager.getProviderClass()).set(null);
+            managerSlots.remove(providerManager.getProviderClass());
+        }
+        adaptProviderFactoryMap.clear();
+        indexedTypesMap.clear();
+        this.classLoader = null;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 获取加载服务提供者的类加载器, 全局注册表使用线程上下文类加载器
+     */
+    ClassLoader getClassLoader() {
+        ClassLoader classLoader = this.classLoader;
+        if (classLoader != null) {
+            return classLoader;
+        }
+        if (closed) {
+            throw new IllegalStateException("provider registry " + this + " is closed");
+        }
+        classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader != null) {
+            return classLoader;
+        }
+        return ProviderRegistry.class.getClassLoader();
+    }
+
+    Map<Object, ProviderFactory> getAdaptProviderFactoryMap() {
+        return adaptProviderFactoryMap;
+    }
+
+    /**
+     * 获取类加载器中生成了编译期索引的SPI类型, 忽略索引时返回空集合
+     */
+    Set<String> getIndexedTypes(ClassLoader classLoader) {
+        if (ProviderIndex.isIgnored()) {
+            return Collections.emptySet();
+        }
+        Set<String> indexedTypes = indexedTypesMap.get(classLoader);
+        if (indexedTypes != null) {
+            return indexedTypes;
+        }
+
+        // 在锁外读取资源文件, 并发读取时使用先写入的结果
+        indexedTypes = new HashSet<>();
+        for (Iterable<List<Map.Entry<String, String>>> iterable : Safes.of(PropertiesUtil.readAsList(classLoader, ProviderIndex.TYPES_RESOURCE)).values()) {
+            for (List<Map.Entry<String, String>> properties : iterable) {
+                for (Map.Entry<String, String> entry : Safes.of(properties)) {
+                    indexedTypes.add(entry.getKey().trim());
+                }
+            }
+        }
+        Set<String> previous = indexedTypesMap.putIfAbsent(classLoader, indexedTypes);
+        return previous == null ? indexedTypes : previous;
+    }
+
+    ProviderLifecycle getLifecycle() {
+        return lifecycle;
+    }
+
+    /**
+     * 将当前线程绑定到注册表, 返回之前绑定的注册表, 需要通过{@link #unbind(ProviderRegistry)}恢复
+     */
+    ProviderRegistry bind() {
+        ProviderRegistry previous = CURRENT_REGISTRY.get();
+        if (previous != this) {
+            CURRENT_REGISTRY.set(this);
+        }
+        return previous;
+    }
+
+    /**
+     * 恢复当前线程之前绑定的注册表
+     */
+    void unbind(ProviderRegistry previous) {
+        if (previous == null) {
+            CURRENT_REGISTRY.remove();
+        } else if (previous != this) {
+            CURRENT_REGISTRY.set(previous);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderRegistry{" +
+                "classLoader=" + (this == GLOBAL ? "global" : classLoader) +
+                ", managers=" + managers.size() +
+                ", closed=" + closed +
+                '}';
+    }
+}
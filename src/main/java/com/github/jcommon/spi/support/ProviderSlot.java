@@ -0,0 +1,211 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.spi.ProviderScope;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 服务提供者实例槽, 由服务提供者描述的final字段持有, 已创建的服务提供者只需要读取一次volatile字段, 不需要加锁
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+final class ProviderSlot<T> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ProviderSlot, ProviderCreation> CREATION_UPDATER = AtomicReferenceFieldUpdater.newUpdater(ProviderSlot.class, ProviderCreation.class, "creation");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ProviderSlot, ProviderPool> POOL_UPDATER = AtomicReferenceFieldUpdater.newUpdater(ProviderSlot.class, ProviderPool.class, "pool");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ProviderSlot, CompletableFuture> ASYNC_CREATION_UPDATER = AtomicReferenceFieldUpdater.newUpdater(ProviderSlot.class, CompletableFuture.class, "asyncCreation");
+
+    /**
+     * 线程作用域的服务提供者, 其他作用域为null
+     * 值为JDK类型的引用单元, 重置时清空所有线程的单元, 线程池中线程的ThreadLocalMap残留的单元不再持有服务提供者及其类加载器
+     */
+    private volatile ThreadLocal<AtomicReference<T>> threadProvider;
+    /**
+     * 线程 -> 线程作用域服务提供者的引用单元, 弱引用线程, 用于重置时释放所有线程的服务提供者, 其他作用域为null
+     */
+    private final Map<Thread, AtomicReference<T>> threadCellMap;
+    private final Lock threadCellLock;
+    /**
+     * 池作用域的对象池, 第一次借出时创建
+     */
+    private volatile ProviderPool<T> pool;
+    /**
+     * 已创建的单例服务提供者, 其他作用域始终为null
+     */
+    private volatile T provider;
+    /**
+     * 创建失败异常
+     */
+    private volatile Throwable error;
+    /**
+     * 进行中的创建
+     */
+    private volatile ProviderCreation<T> creation;
+    /**
+     * 已创建单例服务提供者的已完成Future, 第一次异步获取时创建
+     */
+    private volatile CompletableFuture<T> completed;
+    /**
+     * 进行中的异步创建
+     */
+    private volatile CompletableFuture<T> asyncCreation;
+
+    ProviderSlot(ProviderScope scope) {
+        if (scope == ProviderScope.THREAD) {
+            this.threadProvider = new ThreadLocal<>();
+            this.threadCellMap = new WeakHashMap<>();
+            this.threadCellLock = new ReentrantLock();
+        } else {
+            this.threadProvider = null;
+            this.threadCellMap = null;
+            this.threadCellLock = null;
+        }
+    }
+
+    /**
+     * 获取当前线程的服务提供者, 不存在返回null
+     */
+    T getThreadProvider() {
+        AtomicReference<T> cell = threadProvider.get();
+        return cell == null ? null : cell.get();
+    }
+
+    /**
+     * 设置当前线程的服务提供者
+     */
+    void setThreadProvider(T provider) {
+        threadCellLock.lock();
+        try {
+            ThreadLocal<AtomicReference<T>> local = threadProvider;
+            AtomicReference<T> cell = local.get();
+            if (cell == null) {
+                cell = new AtomicReference<>();
+                local.set(cell);
+                threadCellMap.put(Thread.currentThread(), cell);
+            }
+            cell.set(provider);
+        } finally {
+            threadCellLock.unlock();
+        }
+    }
+
+    /**
+     * 丢弃所有线程的服务提供者, 清空各线程的引用单元
+     */
+    void resetThreadProvider() {
+        if (threadProvider == null) {
+            return;
+        }
+        threadCellLock.lock();
+        try {
+            for (AtomicReference<T> cell : threadCellMap.values()) {
+                cell.set(null);
+            }
+            threadCellMap.clear();
+            threadProvider = new ThreadLocal<>();
+        } finally {
+            threadCellLock.unlock();
+        }
+    }
+
+    ProviderPool<T> getPool() {
+        return pool;
+    }
+
+    /**
+     * 设置对象池, 同时只有一个线程能够成功
+     */
+    boolean initPool(ProviderPool<T> pool) {
+        return POOL_UPDATER.compareAndSet(this, null, pool);
+    }
+
+    /**
+     * 丢弃对象池, 对象池需要已关闭
+     */
+    void resetPool() {
+        this.pool = null;
+    }
+
+    T getProvider() {
+        return provider;
+    }
+
+    void setProvider(T provider) {
+        this.provider = provider;
+        this.completed = null;
+    }
+
+    /**
+     * 获取已创建单例服务提供者的已完成Future, 同一个服务提供者只创建一次
+     */
+    CompletableFuture<T> getCompleted(T provider) {
+        CompletableFuture<T> future = completed;
+        if (future == null || future.getNow(null) != provider) {
+            completed = future = CompletableFuture.completedFuture(provider);
+        }
+        return future;
+    }
+
+    CompletableFuture<T> getAsyncCreation() {
+        return asyncCreation;
+    }
+
+    /**
+     * 开始异步创建, 同时只有一个线程能够成功
+     */
+    boolean startAsyncCreation(CompletableFuture<T> future) {
+        return ASYNC_CREATION_UPDATER.compareAndSet(this, null, future);
+    }
+
+    /**
+     * 结束异步创建, 需要在Future完成之后调用
+     */
+    void endAsyncCreation(CompletableFuture<T> future) {
+        ASYNC_CREATION_UPDATER.compareAndSet(this, future, null);
+    }
+
+    Throwable getError() {
+        return error;
+    }
+
+    void setError(Throwable error) {
+        this.error = error;
+    }
+
+    ProviderCreation<T> getCreation() {
+        return creation;
+    }
+
+    /**
+     * 开始创建, 同时只有一个线程能够成功
+     */
+    boolean startCreation(ProviderCreation<T> creation) {
+        return CREATION_UPDATER.compareAndSet(this, null, creation);
+    }
+
+    /**
+     * 结束创建, 需要在设置服务提供者或异常之后调用
+     */
+    void endCreation() {
+        this.creation = null;
+    }
+
+    @Override
+    public String toString() {
+        return "ProviderSlot{" +
+                "provider=" + provider +
+                ", error=" + error +
+                ", creation=" + creation +
+                '}';
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.spi.Lazy;
+import com.github.jcommon.spi.SPI;
+import com.github.jcommon.spi.internals.SpiProviderFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 构造方法选择: 存在无参构造方法时不改为构造方法注入, 参数配置了@Lazy的构造方法优先, 不存在无参构造方法时使用唯一的public构造方法
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public class ProviderConstructorInjectionTest {
+    private ProviderRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = ProviderRegistry.open(new URLClassLoader(new URL[0], getClass().getClassLoader()));
+        registry.load(Dependency.class).register(DependencyImpl.class);
+    }
+
+    @After
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    public void defaultConstructorKeptBesidePublicConstructor() {
+        ConstructedService provider = registry.load(ConstructedService.class).register(DefaultConstructorService.class)
+                .get(DefaultConstructorService.class).orElse(null);
+
+        assertTrue(provider.isDefaultConstructed());
+        assertNull(provider.getDependency());
+    }
+
+    @Test
+    public void singlePublicConstructorInjected() {
+        ConstructedService provider = registry.load(ConstructedService.class).register(PublicConstructorService.class)
+                .get(PublicConstructorService.class).orElse(null);
+
+        assertFalse(provider.isDefaultConstructed());
+        assertEquals("dependency", provider.getDependency().id());
+    }
+
+    @Test
+    public void annotatedConstructorPreferredOverDefaultConstructor() {
+        ConstructedService provider = registry.load(ConstructedService.class).register(AnnotatedConstructorService.class)
+                .get(AnnotatedConstructorService.class).orElse(null);
+
+        assertFalse(provider.isDefaultConstructed());
+        assertEquals("dependency", provider.getDependency().id());
+    }
+
+    @SPI
+    public interface Dependency {
+        String id();
+    }
+
+    public static class DependencyImpl implements Dependency {
+        @Override
+        public String id() {
+            return "dependency";
+        }
+    }
+
+    @SPI(providerFactory = SpiProviderFactory.class)
+    public interface ConstructedService {
+        boolean isDefaultConstructed();
+
+        Dependency getDependency();
+    }
+
+    public abstract static class AbstractConstructedService implements ConstructedService {
+        private final boolean defaultConstructed;
+        private final Dependency dependency;
+
+        AbstractConstructedService(boolean defaultConstructed, Dependency dependency) {
+            this.defaultConstructed = defaultConstructed;
+            this.dependency = dependency;
+        }
+
+        @Override
+        public boolean isDefaultConstructed() {
+            return defaultConstructed;
+        }
+
+        @Override
+        public Dependency getDependency() {
+            return dependency;
+        }
+    }
+
+    /**
+     * public构造方法与非public无参构造方法, 使用无参构造方法
+     */
+    public static class DefaultConstructorService extends AbstractConstructedService {
+        DefaultConstructorService() {
+            super(true, null);
+        }
+
+        public DefaultConstructorService(Dependency dependency) {
+            super(false, dependency);
+        }
+    }
+
+    /**
+     * 只有一个public构造方法
+     */
+    public static class PublicConstructorService extends AbstractConstructedService {
+        public PublicConstructorService(Dependency dependency) {
+            super(false, dependency);
+        }
+
+        PublicConstructorService(Dependency dependency, String ignored) {
+            super(false, null);
+        }
+    }
+
+    /**
+     * 参数配置了@Lazy的构造方法优先于无参构造方法
+     */
+    public static class AnnotatedConstructorService extends AbstractConstructedService {
+        public AnnotatedConstructorService() {
+            super(true, null);
+        }
+
+        AnnotatedConstructorService(@Lazy Dependency dependency) {
+            super(false, dependency);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.spi.SPI;
+import com.github.jcommon.spi.internals.SpiProviderFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 并发首次获取服务提供者: 单例只创建一次, 其他线程等待创建完成, 不会获取到未初始化完成的实例; 循环依赖在并发下正确注入
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public class ProviderCreationConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 20;
+
+    private ProviderRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = ProviderRegistry.open(new URLClassLoader(new URL[0], getClass().getClassLoader()));
+    }
+
+    @After
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    public void singletonCreatedOnceUnderConcurrentFirstAccess() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            SlowServiceImpl.CONSTRUCTED.set(0);
+            ProviderManager<SlowService> providerManager = registry.load(SlowService.class).register(SlowServiceImpl.class);
+
+            List<SlowService> providers = concurrently(i -> () -> providerManager.get(SlowServiceImpl.class).orElse(null));
+
+            assertEquals(1, SlowServiceImpl.CONSTRUCTED.get());
+            SlowService first = providers.get(0);
+            for (SlowService provider : providers) {
+                assertSame(first, provider);
+                assertTrue(provider.isInitialized());
+            }
+            registry.shutdown();
+        }
+    }
+
+    /**
+     * 线程读取到未创建之后, 创建线程完成创建并结束创建, 之后该线程才获取到创建权: 不能重复创建并覆盖已发布的单例
+     */
+    @Test
+    public void singletonNotRecreatedAfterLateCreationStart() {
+        SlowServiceImpl.CONSTRUCTED.set(0);
+        ProviderManager<SlowService> providerManager = registry.load(SlowService.class).register(SlowServiceImpl.class);
+        SlowService first = providerManager.get(SlowServiceImpl.class).orElse(null);
+        assertEquals(1, SlowServiceImpl.CONSTRUCTED.get());
+
+        ProviderDescriptor<SlowService> descriptor = providerManager.getProviderDescriptors().first();
+        ProviderSlot<SlowService> slot = descriptor.getSlot();
+        ProviderCreation<SlowService> creation = new ProviderCreation<>();
+        assertTrue(slot.startCreation(creation));
+
+        assertSame(first, providerManager.create(descriptor, slot, creation));
+        assertEquals(1, SlowServiceImpl.CONSTRUCTED.get());
+        assertSame(first, providerManager.get(SlowServiceImpl.class).orElse(null));
+        assertNull(slot.getCreation());
+    }
+
+    @Test
+    public void cycleResolvedUnderConcurrentFirstAccess() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            CycleAImpl.CONSTRUCTED.set(0);
+            CycleBImpl.CONSTRUCTED.set(0);
+            ProviderManager<CycleA> aManager = registry.load(CycleA.class).register(CycleAImpl.class);
+            ProviderManager<CycleB> bManager = registry.load(CycleB.class).register(CycleBImpl.class);
+
+            // 一半线程从A开始, 一半线程从B开始
+            List<Object> providers = concurrently(i -> i % 2 == 0
+                    ? () -> aManager.get(CycleAImpl.class).orElse(null)
+                    : () -> bManager.get(CycleBImpl.class).orElse(null));
+
+            assertEquals(1, CycleAImpl.CONSTRUCTED.get());
+            assertEquals(1, CycleBImpl.CONSTRUCTED.get());
+            CycleA a = aManager.get(CycleAImpl.class).orElse(null);
+            CycleB b = bManager.get(CycleBImpl.class).orElse(null);
+            assertSame(b, a.getB());
+            assertSame(a, b.getA());
+            for (int i = 0; i < providers.size(); i++) {
+                assertSame(i % 2 == 0 ? a : b, providers.get(i));
+            }
+            registry.shutdown();
+        }
+    }
+
+    /**
+     * 所有线程同时开始执行, 返回按线程顺序的结果
+     */
+    private static <T> List<T> concurrently(IntFunction<Callable<? extends T>> taskFunction) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<? extends T>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                Callable<? extends T> task = taskFunction.apply(i);
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return task.call();
+                }));
+            }
+            ready.await();
+            start.countDown();
+
+            List<T> results = new ArrayList<>(THREADS);
+            for (Future<? extends T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SPI
+    public interface SlowService {
+        boolean isInitialized();
+    }
+
+    public static class SlowServiceImpl implements SlowService {
+        static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+
+        private volatile boolean initialized;
+
+        public SlowServiceImpl() {
+            CONSTRUCTED.incrementAndGet();
+        }
+
+        @PostConstruct
+        public void init() throws InterruptedException {
+            // 放大其他线程获取到未初始化实例的窗口
+            Thread.sleep(20);
+            initialized = true;
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return initialized;
+        }
+    }
+
+    @SPI(providerFactory = SpiProviderFactory.class)
+    public interface CycleA {
+        CycleB getB();
+    }
+
+    @SPI(providerFactory = SpiProviderFactory.class)
+    public interface CycleB {
+        CycleA getA();
+    }
+
+    public static class CycleAImpl implements CycleA {
+        static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+
+        @Resource
+        private CycleB b;
+
+        public CycleAImpl() {
+            CONSTRUCTED.incrementAndGet();
+        }
+
+        @Override
+        public CycleB getB() {
+            return b;
+        }
+    }
+
+    public static class CycleBImpl implements CycleB {
+        static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+
+        @Resource
+        private CycleA a;
+
+        public CycleBImpl() {
+            CONSTRUCTED.incrementAndGet();
+        }
+
+        @Override
+        public CycleA getA() {
+            return a;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.spi.SPI;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 关闭类加载器的注册表后, 类加载器及其加载的服务提供者可以被回收
+ * 线程作用域服务提供者在仍然存活的线程池线程中创建, 关闭后不能通过线程的ThreadLocalMap持有类加载器
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public class ProviderRegistryUnloadTest {
+    @Test
+    public void classLoaderCollectedAfterClose() throws Exception {
+        // 模拟容器线程池, 关闭注册表后线程仍然存活
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            WeakReference<ClassLoader> reference = loadAndClose(executor);
+            for (int i = 0; i < 50 && reference.get() != null; i++) {
+                System.gc();
+                Thread.sleep(20);
+            }
+            assertNull("class loader is still reachable after registry closed", reference.get());
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static WeakReference<ClassLoader> loadAndClose(ExecutorService executor) throws Exception {
+        ClassLoader classLoader = new IsolatedClassLoader(ProviderRegistryUnloadTest.class.getClassLoader(),
+                UnloadSingletonProvider.class.getName(), UnloadThreadProvider.class.getName());
+        Class<? extends UnloadService> singletonClass = classLoader.loadClass(UnloadSingletonProvider.class.getName()).asSubclass(UnloadService.class);
+        Class<? extends UnloadService> threadClass = classLoader.loadClass(UnloadThreadProvider.class.getName()).asSubclass(UnloadService.class);
+
+        ProviderRegistry registry = ProviderRegistry.open(classLoader);
+        ProviderManager<UnloadService> providerManager = registry.load(UnloadService.class).register(singletonClass).register(threadClass);
+        assertNotNull(providerManager.get(singletonClass).orElse(null));
+        assertNotNull(executor.submit(() -> providerManager.get(threadClass).orElse(null)).get());
+        registry.close();
+        return new WeakReference<>(classLoader);
+    }
+
+    /**
+     * SPI类型由测试类加载器加载, 在所有注册表中共享
+     */
+    @SPI
+    public interface UnloadService {
+    }
+
+    /**
+     * 优先加载指定类, 其他类委托给父类加载器; 指定类需要是公开的顶层类, 与父类加载器中的同名包属于不同的运行时包
+     */
+    private static final class IsolatedClassLoader extends ClassLoader {
+        private final String[] classNames;
+
+        private IsolatedClassLoader(ClassLoader parent, String... classNames) {
+            super(parent);
+            this.classNames = classNames;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            for (String className : classNames) {
+                if (className.equals(name)) {
+                    synchronized (getClassLoadingLock(name)) {
+                        Class<?> clazz = findLoadedClass(name);
+                        if (clazz == null) {
+                            clazz = findClass(name);
+                        }
+                        if (resolve) {
+                            resolveClass(clazz);
+                        }
+                        return clazz;
+                    }
+                }
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (in == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                for (int n; (n = in.read(buffer)) != -1; ) {
+                    out.write(buffer, 0, n);
+                }
+                byte[] bytes = out.toByteArray();
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.jcommon.spi.support;
+
+/**
+ * {@link ProviderRegistryUnloadTest}中由独立类加载器加载的单例服务提供者
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public class UnloadSingletonProvider implements ProviderRegistryUnloadTest.UnloadService {
+}
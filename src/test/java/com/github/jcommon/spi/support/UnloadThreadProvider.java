@@ -0,0 +1,15 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.spi.Provider;
+import com.github.jcommon.spi.ProviderScope;
+
+/**
+ * {@link ProviderRegistryUnloadTest}中由独立类加载器加载的线程作用域服务提供者
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+@Provider(scope = ProviderScope.THREAD)
+public class UnloadThreadProvider implements ProviderRegistryUnloadTest.UnloadService {
+}
@@ -0,0 +1,280 @@
+package com.github.jcommon.spi.support;
+
+import com.github.jcommon.spi.Provider;
+import com.github.jcommon.spi.ProviderScope;
+import com.github.jcommon.spi.SPI;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 大量虚拟线程同时创建不同的单例, @PostConstruct阻塞时不能占用载体线程
+ * 每个注册表中的单例各自创建, 所有@PostConstruct等待同一个闩锁: 只有创建过程不占用载体线程时, 同时进入@PostConstruct的创建数量才能超过载体线程数量
+ * 单例创建在synchronized中执行时, Java 21的虚拟线程阻塞会占用载体线程, 最多只有载体线程数量的创建同时进入@PostConstruct
+ * 数千个虚拟线程在少量注册表中同时获取单例、原型与线程作用域的服务提供者, 获取期间挂起并在其他载体线程上继续, 在断言消息中报告使用的载体线程数量
+ * 通过反射创建虚拟线程, Java 21以下跳过
+ *
+ * @author shijian
+ * @email shijianws@163.com
+ * @date 2021-02-20
+ */
+public class VirtualThreadCreationTest {
+    /**
+     * 等待所有创建同时进入@PostConstruct的超时时间(秒)
+     */
+    private static final long ARRIVE_TIMEOUT_SECONDS = 5L;
+    /**
+     * 同时获取服务提供者的虚拟线程数量与共享的注册表数量
+     */
+    private static final int VIRTUAL_THREADS = 10_000;
+    private static final int REGISTRIES = 4;
+
+    private static final List<Class<? extends ResolvedService>> SINGLETONS = Arrays.asList(SingletonOne.class, SingletonTwo.class, SingletonThree.class);
+    private static final List<Class<? extends ResolvedService>> PROTOTYPES = Arrays.asList(PrototypeOne.class, PrototypeTwo.class);
+    private static final List<Class<? extends ResolvedService>> THREAD_SCOPED = Arrays.asList(ThreadScopedOne.class, ThreadScopedTwo.class);
+
+    private final List<ProviderRegistry> registries = new ArrayList<>();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = newVirtualThreadPerTaskExecutor();
+        Assume.assumeNotNull(executor);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        for (ProviderRegistry registry : registries) {
+            registry.close();
+        }
+    }
+
+    @Test
+    public void slowSingletonCreationsDoNotPinCarriers() throws Exception {
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+        int creations = carriers * 2;
+        BlockingSingleton.reset(creations);
+
+        List<ProviderManager<BlockingService>> providerManagers = new ArrayList<>(creations);
+        for (int i = 0; i < creations; i++) {
+            ProviderRegistry registry = ProviderRegistry.open(new URLClassLoader(new URL[0], getClass().getClassLoader()));
+            registries.add(registry);
+            providerManagers.add(registry.load(BlockingService.class).register(BlockingSingleton.class));
+        }
+
+        List<Future<BlockingService>> futures = new ArrayList<>(creations * 2);
+        for (ProviderManager<BlockingService> providerManager : providerManagers) {
+            // 创建者与等待同一单例创建完成的线程
+            futures.add(executor.submit(() -> providerManager.get(BlockingSingleton.class).orElse(null)));
+            futures.add(executor.submit(() -> providerManager.get(BlockingSingleton.class).orElse(null)));
+        }
+        for (Future<BlockingService> future : futures) {
+            future.get(ARRIVE_TIMEOUT_SECONDS * 4, TimeUnit.SECONDS);
+        }
+
+        assertEquals(creations + " singleton creations on " + carriers + " carriers, concurrent @PostConstruct reached " + BlockingSingleton.MAX_ARRIVED.get(),
+                creations, BlockingSingleton.MAX_ARRIVED.get());
+        assertEquals(creations, BlockingSingleton.CONSTRUCTED.get());
+    }
+
+    @Test
+    public void thousandsOfVirtualThreadsResolveProviders() throws Exception {
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+        CountedService.CONSTRUCTED.clear();
+        List<Class<? extends ResolvedService>> providerClasses = new ArrayList<>();
+        providerClasses.addAll(SINGLETONS);
+        providerClasses.addAll(PROTOTYPES);
+        providerClasses.addAll(THREAD_SCOPED);
+
+        List<ProviderManager<ResolvedService>> providerManagers = new ArrayList<>(REGISTRIES);
+        for (int i = 0; i < REGISTRIES; i++) {
+            ProviderRegistry registry = ProviderRegistry.open(new URLClassLoader(new URL[0], getClass().getClassLoader()));
+            registries.add(registry);
+            ProviderManager<ResolvedService> providerManager = registry.load(ResolvedService.class);
+            for (Class<? extends ResolvedService> providerClass : providerClasses) {
+                providerManager.register(providerClass);
+            }
+            providerManagers.add(providerManager);
+        }
+
+        Set<String> carrierNames = ConcurrentHashMap.newKeySet();
+        List<Future<List<ResolvedService>>> futures = new ArrayList<>(VIRTUAL_THREADS);
+        for (int i = 0; i < VIRTUAL_THREADS; i++) {
+            ProviderManager<ResolvedService> providerManager = providerManagers.get(i % REGISTRIES);
+            futures.add(executor.submit(() -> {
+                List<ResolvedService> providers = new ArrayList<>(providerClasses.size() * 2);
+                carrierNames.add(carrierName());
+                for (Class<? extends ResolvedService> providerClass : providerClasses) {
+                    providers.add(providerManager.get(providerClass).orElse(null));
+                }
+                // 挂起后可能在其他载体线程上继续, 线程作用域仍属于同一虚拟线程
+                Thread.sleep(1L);
+                carrierNames.add(carrierName());
+                for (Class<? extends ResolvedService> providerClass : providerClasses) {
+                    providers.add(providerManager.get(providerClass).orElse(null));
+                }
+                return providers;
+            }));
+        }
+
+        for (int i = 0; i < VIRTUAL_THREADS; i++) {
+            List<ResolvedService> providers = futures.get(i).get(ARRIVE_TIMEOUT_SECONDS * 12, TimeUnit.SECONDS);
+            ProviderManager<ResolvedService> providerManager = providerManagers.get(i % REGISTRIES);
+            for (int j = 0; j < providerClasses.size(); j++) {
+                Class<? extends ResolvedService> providerClass = providerClasses.get(j);
+                ResolvedService first = providers.get(j);
+                ResolvedService second = providers.get(j + providerClasses.size());
+                assertNotNull(providerClass.getSimpleName(), first);
+                if (SINGLETONS.contains(providerClass)) {
+                    assertSame(providerManager.get(providerClass).orElse(null), first);
+                    assertSame(first, second);
+                } else if (THREAD_SCOPED.contains(providerClass)) {
+                    assertSame(first, second);
+                } else {
+                    assertNotSame(first, second);
+                }
+            }
+        }
+
+        for (Class<? extends ResolvedService> providerClass : SINGLETONS) {
+            assertEquals(REGISTRIES, CountedService.constructed(providerClass));
+        }
+        for (Class<? extends ResolvedService> providerClass : PROTOTYPES) {
+            assertEquals(VIRTUAL_THREADS * 2, CountedService.constructed(providerClass));
+        }
+        for (Class<? extends ResolvedService> providerClass : THREAD_SCOPED) {
+            assertEquals(VIRTUAL_THREADS, CountedService.constructed(providerClass));
+        }
+
+        String report = VIRTUAL_THREADS + " virtual threads resolved " + providerClasses.size() + " providers in " + REGISTRIES
+                + " registries on " + carrierNames.size() + " of " + carriers + " carriers";
+        assertTrue(report, !carrierNames.isEmpty() && carrierNames.size() <= carriers);
+    }
+
+    /**
+     * 当前虚拟线程挂载的载体线程名称, 虚拟线程的toString格式: VirtualThread[#21]/runnable@ForkJoinPool-1-worker-1
+     */
+    private static String carrierName() {
+        String name = Thread.currentThread().toString();
+        return name.substring(name.indexOf('@') + 1);
+    }
+
+    /**
+     * 通过反射调用Executors.newVirtualThreadPerTaskExecutor(), 不支持虚拟线程返回null
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // Java 21以下不存在, 或为未开启的预览特性
+            return null;
+        }
+    }
+
+    @SPI
+    public interface BlockingService {
+    }
+
+    public static class BlockingSingleton implements BlockingService {
+        static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+        /**
+         * 同时处于@PostConstruct中的最大创建数量
+         */
+        static final AtomicInteger MAX_ARRIVED = new AtomicInteger();
+        private static final AtomicInteger ARRIVED = new AtomicInteger();
+        private static volatile CountDownLatch allArrived;
+
+        static void reset(int creations) {
+            CONSTRUCTED.set(0);
+            MAX_ARRIVED.set(0);
+            ARRIVED.set(0);
+            allArrived = new CountDownLatch(creations);
+        }
+
+        public BlockingSingleton() {
+            CONSTRUCTED.incrementAndGet();
+        }
+
+        @PostConstruct
+        public void init() throws InterruptedException {
+            int arrived = ARRIVED.incrementAndGet();
+            MAX_ARRIVED.accumulateAndGet(arrived, Math::max);
+            allArrived.countDown();
+            // 模拟I/O, 等待其他创建同时进入; 载体线程被占用时等待超时
+            allArrived.await(ARRIVE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            ARRIVED.decrementAndGet();
+        }
+    }
+
+    @SPI
+    public interface ResolvedService {
+    }
+
+    /**
+     * 按照类型统计创建数量
+     */
+    public abstract static class CountedService implements ResolvedService {
+        static final Map<Class<?>, AtomicInteger> CONSTRUCTED = new ConcurrentHashMap<>();
+
+        CountedService() {
+            CONSTRUCTED.computeIfAbsent(getClass(), key -> new AtomicInteger()).incrementAndGet();
+        }
+
+        static int constructed(Class<?> providerClass) {
+            AtomicInteger constructed = CONSTRUCTED.get(providerClass);
+            return constructed == null ? 0 : constructed.get();
+        }
+    }
+
+    public static class SingletonOne extends CountedService {
+    }
+
+    public static class SingletonTwo extends CountedService {
+    }
+
+    public static class SingletonThree extends CountedService {
+    }
+
+    @Provider(scope = ProviderScope.PROTOTYPE)
+    public static class PrototypeOne extends CountedService {
+    }
+
+    @Provider(scope = ProviderScope.PROTOTYPE)
+    public static class PrototypeTwo extends CountedService {
+    }
+
+    @Provider(scope = ProviderScope.THREAD)
+    public static class ThreadScopedOne extends CountedService {
+    }
+
+    @Provider(scope = ProviderScope.THREAD)
+    public static class ThreadScopedTwo extends CountedService {
+    }
+}